@@ -0,0 +1,93 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application;
+
+import com.mami83.application.composants.BackgroundImagePanel;
+import com.mami83.application.composants.Icons;
+import com.mami83.application.composants.SpinnerIcon;
+import com.mami83.application.page.ihm.AccueilConnexionPane;
+import com.mami83.application.page.ihm.AccueilPane;
+import com.mami83.application.util.StartupTimeline;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Parcours d'entraînement du cache AOT (profil Maven {@code aot}).
+ * <p>
+ * Rejoue sans fenêtre (headless) le chemin de démarrage jusqu'à l'accueil :
+ * Look and Feel, décodage du fond, panel de connexion, panel d'accueil et
+ * icônes, chacun mis en page et dessiné dans une image. Les classes chargées
+ * pendant ce parcours sont celles enregistrées dans le cache. Affiche la durée
+ * depuis le lancement du processus, pour comparer avec et sans cache.
+ *
+ * @author Association MAMI
+ */
+public final class AotTraining {
+
+    private static final Dimension SIZE = new Dimension(1024, 700);
+
+    private AotTraining() {
+    }
+
+    /**
+     * Point d'entrée du parcours d'entraînement.
+     *
+     * @param args libellé de la mesure affichée (ex : "sans cache")
+     */
+    public static void main(String[] args) throws Exception {
+        String label = args.length > 0 ? " (" + String.join(" ", args) + ")" : "";
+        MamiApp.setupLookAndFeel();
+        MamiApp.preloadClasses();
+        BufferedImage fond = BackgroundImagePanel.preloadImage("/images/fond.png").get();
+
+        SwingUtilities.invokeAndWait(() -> {
+            BackgroundImagePanel background = new BackgroundImagePanel(new BorderLayout());
+            background.setBackgroundImage(fond);
+            render(background);
+
+            // Connexion puis accueil (sans vue principale : pas de préchargement des modules)
+            render(new AccueilConnexionPane());
+            render(new AccueilPane());
+
+            for (Icon icon : List.of(Icons.exitIcon(), Icons.homeIcon(), Icons.childIcon(),
+                    Icons.familyIcon(), Icons.employeeIcon(), Icons.adminIcon(),
+                    Icons.globeIcon(), Icons.keyIcon(), Icons.genericIcon(), new SpinnerIcon())) {
+                BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = image.createGraphics();
+                icon.paintIcon(null, g, 0, 0);
+                g.dispose();
+            }
+        });
+
+        System.out.println("Démarrage Mami" + label + " : accueil prêt en "
+                + StartupTimeline.elapsedMillis() + " ms depuis le lancement");
+        System.exit(0);
+    }
+
+    /**
+     * Met en page et dessine un panel dans une image.
+     */
+    private static void render(JComponent panel) {
+        panel.setSize(SIZE);
+        layout(panel);
+        BufferedImage image = new BufferedImage(SIZE.width, SIZE.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        panel.paint(g);
+        g.dispose();
+    }
+
+    private static void layout(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container c) {
+                layout(c);
+            }
+        }
+    }
+}
@@ -6,14 +6,23 @@
 package com.mami83.application;
 
 import com.formdev.flatlaf.FlatLightLaf;
+import com.mami83.application.composants.BackgroundImagePanel;
+import com.mami83.application.composants.StartupSplash;
 import com.mami83.application.page.ihm.AccueilConnexionPane;
+import com.mami83.application.util.EdtWatchdog;
+import com.mami83.application.util.MamiRepaintManager;
+import com.mami83.application.util.StartupTimeline;
+import com.mami83.application.util.TaskExecutor;
+import com.mami83.application.util.TimedEventQueue;
 
 import javax.swing.*;
-import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Point d'entrée principal de l'application Mami.
- * Configure le look and feel et initialise la vue principale.
+ * Affiche un écran de démarrage, configure le look and feel en parallèle
+ * du décodage des images et du chargement des classes, puis initialise
+ * la vue principale.
  *
  * @author Association MAMI
  */
@@ -22,11 +31,90 @@ public class MamiApp {
     private static MamiApp instance;
     private static MamiView mamiView;
 
+    /** Image de fond décodée pendant le démarrage */
+    private static final String BACKGROUND_IMAGE = "/images/fond.png";
+
+    /** Classes chargées à l'avance pendant la configuration du Look and Feel */
+    private static final String[] PRELOADED_CLASSES = {
+            "com.mami83.application.MamiView",
+            "com.mami83.application.page.ihm.AccueilConnexionPane",
+            "com.mami83.application.page.ihm.AccueilPane",
+            "com.mami83.application.composants.navigation.NavigationPanel",
+            "com.mami83.application.composants.navigation.NavigationButton",
+            "com.mami83.application.composants.Icons",
+            "com.mami83.application.composants.SpinnerIcon",
+            "com.mami83.application.composants.StatusBarModel",
+            "com.mami83.application.composants.TaskListPopup",
+            "net.miginfocom.swing.MigLayout",
+            "javax.swing.JFrame",
+            "javax.swing.JPasswordField",
+            "javax.swing.JPopupMenu",
+    };
+
+    private static boolean printTimeline = false;
+
     /**
      * Point d'entrée de l'application.
+     * Options : {@code --virtual-threads} exécute les tâches de fond sur des
+     * threads virtuels (équivalent à {@code -Dmami.tasks.virtualThreads=true}) ;
+     * {@code --startup-timeline} affiche la durée de chaque étape du démarrage
+     * (équivalent à {@code -Dmami.startup.timeline=true}) ;
+     * {@code --event-timing} mesure la durée de traitement des événements AWT
+     * et l'exporte en CSV à la fermeture (équivalent à {@code -Dmami.events.timing=true}).
      */
     public static void main(String[] args) {
-        // Configuration du Look and Feel FlatLaf
+        StartupTimeline.mark("main");
+
+        // Options de la ligne de commande
+        boolean virtualThreads = Boolean.getBoolean("mami.tasks.virtualThreads");
+        printTimeline = Boolean.getBoolean("mami.startup.timeline");
+        boolean eventTiming = Boolean.getBoolean("mami.events.timing");
+        for (String arg : args) {
+            if ("--virtual-threads".equals(arg)) {
+                virtualThreads = true;
+            } else if ("--startup-timeline".equals(arg)) {
+                printTimeline = true;
+            } else if ("--event-timing".equals(arg)) {
+                eventTiming = true;
+            }
+        }
+        if (virtualThreads) {
+            TaskExecutor.setExecutionMode(TaskExecutor.ExecutionMode.VIRTUAL);
+        }
+
+        // Écran de démarrage, affiché avant toute initialisation Swing
+        StartupSplash splash = StartupTimeline.time("Écran de démarrage", StartupSplash::show);
+        splash.setStatus("Chargement...", 10);
+
+        // Étapes indépendantes en parallèle : décodage du fond et chargement des classes
+        StartupTimeline.Phase imagePhase = StartupTimeline.begin("Décodage image de fond");
+        BackgroundImagePanel.preloadImage(BACKGROUND_IMAGE).whenComplete((image, error) -> imagePhase.end());
+        CompletableFuture.runAsync(() -> StartupTimeline.time("Préchargement des classes", MamiApp::preloadClasses));
+
+        // Configuration du Look and Feel (thread principal, avant tout composant)
+        StartupTimeline.time("Look and Feel", MamiApp::setupLookAndFeel);
+        splash.setStatus("Création de la fenêtre...", 50);
+
+        // Surveillance de la réactivité de l'EDT (diagnostic : Ctrl+Alt+D)
+        EdtWatchdog.install();
+        if (eventTiming) {
+            TimedEventQueue.install();
+        }
+
+        // Statistiques et regroupement des repaints, plafond des repaints de toute la fenêtre
+        MamiRepaintManager.install();
+
+        // Lancement sur l'EDT (Event Dispatch Thread)
+        SwingUtilities.invokeLater(() -> {
+            instance = new MamiApp();
+            instance.start(splash);
+        });
+    }
+
+    /**
+     * Configure le Look and Feel FlatLaf.
+     */
+    static void setupLookAndFeel() {
         try {
             FlatLightLaf.setup();
             
@@ -39,12 +127,22 @@ public class MamiApp {
         } catch (Exception e) {
             System.err.println("Erreur lors de l'initialisation du Look and Feel: " + e.getMessage());
         }
+    }
 
-        // Lancement sur l'EDT (Event Dispatch Thread)
-        SwingUtilities.invokeLater(() -> {
-            instance = new MamiApp();
-            instance.start();
-        });
+    /**
+     * Charge à l'avance les classes de la fenêtre principale : sur un disque lent,
+     * leur lecture se fait pendant la configuration du Look and Feel plutôt que sur l'EDT.
+     * Les classes ne sont pas initialisées.
+     */
+    static void preloadClasses() {
+        ClassLoader loader = MamiApp.class.getClassLoader();
+        for (String className : PRELOADED_CLASSES) {
+            try {
+                Class.forName(className, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("Préchargement impossible: " + className);
+            }
+        }
     }
 
     /**
@@ -63,17 +161,30 @@ public class MamiApp {
 
     /**
      * Démarre l'application.
+     *
+     * @param splash l'écran de démarrage, fermé une fois la fenêtre affichée
      */
-    private void start() {
-        // Création de la vue principale
-        mamiView = new MamiView();
+    private void start(StartupSplash splash) {
+        // Création de la vue principale (l'image de fond est déjà en cours de décodage)
+        mamiView = StartupTimeline.time("Vue principale", MamiView::new);
+        splash.setStatus("Connexion...", 80);
 
         // Affichage du panel de connexion par défaut
-        AccueilConnexionPane connexionPane = new AccueilConnexionPane();
+        AccueilConnexionPane connexionPane = StartupTimeline.time("Panel de connexion", AccueilConnexionPane::new);
         mamiView.addAndShow(connexionPane, "accueilConnexion");
 
         // Affichage de la fenêtre
-        mamiView.show();
+        StartupTimeline.time("Affichage de la fenêtre", mamiView::show);
+        splash.close();
+
+        // Fin du démarrage : fenêtre peinte et image de fond affichée
+        SwingUtilities.invokeLater(() -> StartupTimeline.mark("Fenêtre affichée"));
+        mamiView.getBackgroundLoading().thenRun(() -> {
+            StartupTimeline.mark("Image de fond affichée");
+            if (printTimeline) {
+                StartupTimeline.print(System.out);
+            }
+        });
     }
 
     /**
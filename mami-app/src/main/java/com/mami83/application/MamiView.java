@@ -6,17 +6,33 @@
 package com.mami83.application;
 
 import com.mami83.application.composants.BackgroundImagePanel;
+import com.mami83.application.composants.CardPanelCache;
+import com.mami83.application.composants.CompositedPanel;
 import com.mami83.application.composants.Icons;
 import com.mami83.application.composants.SpinnerIcon;
+import com.mami83.application.composants.StatusBarModel;
+import com.mami83.application.composants.TaskListPopup;
 import com.mami83.application.composants.navigation.NavigationButton;
 import com.mami83.application.composants.navigation.NavigationPanel;
+import com.mami83.application.page.ihm.DiagnosticPane;
+import com.mami83.application.util.TaskHandle;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Vue principale de l'application Mami.
@@ -37,6 +53,7 @@ public class MamiView {
 
     // Panel principal avec image de fond
     private final BackgroundImagePanel mainPanel;
+    private final CompletableFuture<BufferedImage> backgroundLoading;
 
     // Barre de navigation (en haut)
     private NavigationPanel navigationPanel;
@@ -46,6 +63,8 @@ public class MamiView {
     private final JPanel cardPanel;
     private final CardLayout cardLayout;
     private final Map<String, JComponent> cardMap = new HashMap<>();
+    private final CardPanelCache cardCache;       // Éviction LRU des modules reconstructibles
+    private String requestedPanel;                // Dernier panel demandé (reconstructions en cours)
 
     // Barre de statut (en bas)
     private final JPanel statusPanel;
@@ -53,6 +72,16 @@ public class MamiView {
     private final JLabel connectionLabel;         // "Connecté à [BDD]" au centre
     private final SpinnerIcon spinnerIcon;        // Spinner animé à droite
     private final JLabel spinnerLabel;            // Label contenant le spinner
+    private final JLabel progressLabel;           // Pourcentage à gauche du spinner
+    private final StatusBarModel statusModel;     // Mises à jour regroupées (une par image)
+    private final Timer errorResetTimer;          // Rétablit la couleur après une erreur
+
+    // Registre des tâches en cours (nombre, progression combinée, popup de détail)
+    private final List<RunningTask> runningTasks = new CopyOnWriteArrayList<>();
+    private final Object taskLock = new Object();  // Registre modifié et publié d'un seul tenant
+    private final TaskListPopup taskListPopup;
+    private int displayedTaskCount = 0;
+    private int displayedProgress = StatusBarModel.NO_PROGRESS;
 
     // Informations utilisateur (en haut à droite)
     private final JLabel welcomeLabel;
@@ -77,8 +106,10 @@ public class MamiView {
 
         // Panel principal avec image de fond
         mainPanel = new BackgroundImagePanel(new BorderLayout());
-        mainPanel.loadImage("/images/fond.png");
+        backgroundLoading = mainPanel.loadImageAsync("/images/fond.png");
         mainPanel.setStyle(BackgroundImagePanel.Style.SCALED);
+        // Rendu par calque : la barre du haut et le panel central se composent sur le fond en cache
+        mainPanel.setLayered(!"false".equals(System.getProperty("mami.paint.layered")));
 
         // Initialisation des composants utilisateur (haut droite)
         welcomeLabel = new JLabel("Bonjour");
@@ -100,8 +131,8 @@ public class MamiView {
 
         // === PANEL CENTRAL (CardLayout) ===
         cardLayout = new CardLayout();
-        cardPanel = new JPanel(cardLayout);
-        cardPanel.setOpaque(false);
+        cardPanel = new CompositedPanel(cardLayout);
+        cardCache = new CardPanelCache(this::detachPanel);
 
         // === BARRE DE STATUT ===
         statusPanel = new JPanel(new BorderLayout());
@@ -128,6 +159,12 @@ public class MamiView {
         spinnerLabel = new JLabel(spinnerIcon);
         spinnerLabel.setVisible(false);
 
+        // Pourcentage de progression (tâches avec progression connue)
+        progressLabel = new JLabel("");
+        progressLabel.setFont(progressLabel.getFont().deriveFont(11f));
+        progressLabel.setForeground(new Color(100, 100, 100));
+        progressLabel.setVisible(false);
+
         // Panel gauche
         JPanel leftPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
         leftPanel.setOpaque(false);
@@ -136,8 +173,31 @@ public class MamiView {
         // Panel droit avec spinner
         JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         rightPanel.setOpaque(false);
+        rightPanel.add(progressLabel);
         rightPanel.add(spinnerLabel);
 
+        statusModel = new StatusBarModel(this::applyStatus);
+        errorResetTimer = new Timer(3000, e -> {
+            statusMessageLabel.setForeground(new Color(80, 80, 80));
+        });
+        errorResetTimer.setRepeats(false);
+
+        // Clic sur le spinner : détail des tâches en cours
+        taskListPopup = new TaskListPopup(() -> new ArrayList<>(runningTasks));
+        MouseAdapter showTasks = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!runningTasks.isEmpty()) {
+                    taskListPopup.showAbove(spinnerLabel);
+                }
+            }
+        };
+        for (JLabel label : new JLabel[] {spinnerLabel, progressLabel}) {
+            label.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+            label.setToolTipText("Voir les tâches en cours");
+            label.addMouseListener(showTasks);
+        }
+
         statusPanel.add(leftPanel, BorderLayout.WEST);
         statusPanel.add(connectionLabel, BorderLayout.CENTER);
         statusPanel.add(rightPanel, BorderLayout.EAST);
@@ -151,14 +211,24 @@ public class MamiView {
 
         // Configuration de la navigation
         setupNavigation();
+
+        // Panel de diagnostic caché : Ctrl+Alt+D
+        KeyStroke diagnosticKey = KeyStroke.getKeyStroke(KeyEvent.VK_D,
+                InputEvent.CTRL_DOWN_MASK | InputEvent.ALT_DOWN_MASK);
+        frame.getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(diagnosticKey, "diagnostic");
+        frame.getRootPane().getActionMap().put("diagnostic", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showDiagnostics();
+            }
+        });
     }
 
     /**
      * Crée la barre du haut contenant la navigation et le nom utilisateur.
      */
     private JPanel createTopBar() {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setOpaque(false);
+        JPanel panel = new CompositedPanel(new BorderLayout());
         panel.setPreferredSize(new Dimension(0, 85));
         panel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
 
@@ -212,16 +282,28 @@ public class MamiView {
 
     /**
      * Affiche un panel par son nom.
+     * Un panel évincé de la mémoire est reconstruit puis affiché.
      *
      * @param name le nom du panel
-     * @return true si le panel existe et a été affiché
+     * @return true si le panel existe (ou est en cours de reconstruction)
      */
     public boolean showPanel(String name) {
+        requestedPanel = name;
         if (cardMap.containsKey(name)) {
             cardLayout.show(cardPanel, name);
+            cardCache.shown(name);
             return true;
         }
-        return false;
+        return cardCache.rebuild(name, panel -> {
+            // Ignoré si le panel a été libéré ou reconstruit entre-temps
+            if (cardCache.isEvicted(name)) {
+                attachPanel(panel, name);
+                // Affiché seulement si l'utilisateur ne s'est pas déplacé entre-temps
+                if (name.equals(requestedPanel)) {
+                    showPanel(name);
+                }
+            }
+        });
     }
 
     /**
@@ -232,11 +314,10 @@ public class MamiView {
      * @return true si l'ajout a réussi
      */
     public boolean addPanel(JComponent panel, String name) {
-        if (cardMap.containsKey(name)) {
+        if (hasPanel(name)) {
             return false;
         }
-        cardMap.put(name, panel);
-        cardPanel.add(panel, name);
+        attachPanel(panel, name);
         return true;
     }
 
@@ -255,28 +336,73 @@ public class MamiView {
     }
 
     /**
-     * Supprime un panel du CardLayout.
+     * Supprime un panel du CardLayout. Le panel ne sera pas reconstruit.
      *
      * @param name le nom du panel à supprimer
      */
     public void removePanel(String name) {
-        JComponent panel = cardMap.get(name);
+        detachPanel(name);
+        cardCache.removed(name);
+    }
+
+    /**
+     * Vérifie si un panel existe (en mémoire ou reconstructible).
+     *
+     * @param name le nom du panel
+     * @return true si le panel existe
+     */
+    public boolean hasPanel(String name) {
+        return cardMap.containsKey(name) || cardCache.isEvicted(name);
+    }
+
+    /**
+     * Rend un panel évinçable : au-delà de la limite de panels en mémoire,
+     * ou sous pression mémoire, il est libéré puis reconstruit quand on y revient.
+     *
+     * @param name le nom du panel
+     * @param rebuilder la reconstruction du panel
+     */
+    public void setPanelRebuilder(String name, CardPanelCache.Rebuilder rebuilder) {
+        cardCache.setRebuilder(name, rebuilder);
+    }
+
+    private void attachPanel(JComponent panel, String name) {
+        cardMap.put(name, panel);
+        cardPanel.add(panel, name);
+        cardCache.added(name, panel);
+    }
+
+    /**
+     * Retire un panel du CardLayout (libération ou éviction).
+     */
+    private void detachPanel(String name) {
+        JComponent panel = cardMap.remove(name);
         if (panel != null) {
             cardPanel.remove(panel);
-            cardMap.remove(name);
             cardPanel.revalidate();
             cardPanel.repaint();
         }
     }
 
     /**
-     * Vérifie si un panel existe.
-     *
-     * @param name le nom du panel
-     * @return true si le panel existe
+     * Affiche le panel de diagnostic et son bouton dans la barre de navigation.
+     * Le retour par ce bouton libère le panel.
      */
-    public boolean hasPanel(String name) {
-        return cardMap.containsKey(name);
+    public void showDiagnostics() {
+        if (!cardMap.containsKey("diagnostic")) {
+            addPanel(new DiagnosticPane(), "diagnostic");
+            if (!navigationPanel.hasButton("diagnostic")) {
+                NavigationButton button = new NavigationButton("diagnostic", "Diagnostic", Icons.genericIcon());
+                button.addActionListener(e -> {
+                    if (!showPanel("accueil")) {
+                        showPanel("accueilConnexion");
+                    }
+                });
+                navigationPanel.addNavigationButton(button);
+            }
+            navigationPanel.showButton("diagnostic", "diagnostic");
+        }
+        showPanel("diagnostic");
     }
 
     // ==================== GESTION DE LA NAVIGATION ====================
@@ -317,7 +443,7 @@ public class MamiView {
      * @param message le message à afficher
      */
     public void setStatusMessage(String message) {
-        SwingUtilities.invokeLater(() -> statusMessageLabel.setText(message));
+        statusModel.setMessage(message);
     }
 
     /**
@@ -345,21 +471,14 @@ public class MamiView {
      * @param message le message de statut à afficher
      */
     public void startLoading(String message) {
-        SwingUtilities.invokeLater(() -> {
-            statusMessageLabel.setText(message);
-            spinnerIcon.start();
-            spinnerLabel.setVisible(true);
-        });
+        statusModel.setLoading(true, message);
     }
 
     /**
      * Démarre le spinner sans changer le message.
      */
     public void startLoading() {
-        SwingUtilities.invokeLater(() -> {
-            spinnerIcon.start();
-            spinnerLabel.setVisible(true);
-        });
+        statusModel.setLoading(true, null);
     }
 
     /**
@@ -368,83 +487,238 @@ public class MamiView {
      * @param message le message de statut à afficher
      */
     public void stopLoading(String message) {
-        SwingUtilities.invokeLater(() -> {
-            spinnerIcon.stop();
-            spinnerLabel.setVisible(false);
-            statusMessageLabel.setText(message);
-        });
+        statusModel.setLoading(false, message);
     }
 
     /**
      * Arrête le spinner sans changer le message.
      */
     public void stopLoading() {
-        SwingUtilities.invokeLater(() -> {
-            spinnerIcon.stop();
-            spinnerLabel.setVisible(false);
-        });
+        statusModel.setLoading(false, null);
     }
 
     /**
      * Démarre une tâche avec affichage du spinner.
+     * La tâche est ajoutée au registre des tâches en cours.
      *
      * @param taskName le nom de la tâche
      */
     public void startTask(String taskName) {
-        startLoading(taskName + "...");
+        synchronized (taskLock) {
+            runningTasks.add(new RunningTask(taskName, null));
+            publishTasks(taskName + "...", false);
+        }
     }
 
     /**
-     * Met à jour le message pendant une tâche.
+     * Met à jour la progression et le message de la dernière tâche démarrée
+     * par {@link #startTask(String)}.
+     * Peut être appelé depuis n'importe quel thread.
      *
-     * @param progress ignoré (compatibilité)
+     * @param progress le pourcentage (0-100)
      * @param message le message à afficher
      */
     public void updateProgress(int progress, String message) {
-        SwingUtilities.invokeLater(() -> {
-            if (message != null && !message.isEmpty()) {
-                statusMessageLabel.setText(message);
+        synchronized (taskLock) {
+            RunningTask task = lastAnonymousTask();
+            if (task != null) {
+                task.progress = progress;
+                publishTasks(message != null && !message.isEmpty() ? message : null, false);
+            } else {
+                statusModel.setProgress(progress, message);
             }
-        });
+        }
     }
 
     /**
-     * Met à jour le message pendant une tâche.
+     * Met à jour la progression de la dernière tâche démarrée par {@link #startTask(String)}.
+     * Peut être appelé depuis n'importe quel thread.
      *
-     * @param progress ignoré (compatibilité)
+     * @param progress le pourcentage (0-100)
      */
     public void updateProgress(int progress) {
-        // Pas d'affichage de pourcentage avec le spinner
+        updateProgress(progress, null);
     }
 
     /**
-     * Termine une tâche.
+     * Termine la plus ancienne tâche démarrée par {@link #startTask(String)}.
+     * Le spinner reste affiché tant que d'autres tâches sont en cours.
      *
      * @param successMessage le message de succès
      */
     public void endTask(String successMessage) {
-        stopLoading(successMessage);
+        synchronized (taskLock) {
+            removeAnonymousTask();
+            publishTasks(successMessage, false);
+        }
     }
 
     /**
-     * Termine une tâche en erreur.
+     * Termine en erreur la plus ancienne tâche démarrée par {@link #startTask(String)}.
      *
      * @param errorMessage le message d'erreur
      */
     public void endTaskWithError(String errorMessage) {
-        SwingUtilities.invokeLater(() -> {
-            spinnerIcon.stop();
-            spinnerLabel.setVisible(false);
-            statusMessageLabel.setText("Erreur: " + errorMessage);
-            statusMessageLabel.setForeground(new Color(180, 60, 60));
-            
-            // Remettre la couleur normale après 3 secondes
-            Timer resetTimer = new Timer(3000, e -> {
-                statusMessageLabel.setForeground(new Color(80, 80, 80));
-            });
-            resetTimer.setRepeats(false);
-            resetTimer.start();
-        });
+        synchronized (taskLock) {
+            removeAnonymousTask();
+            publishTasks("Erreur: " + errorMessage, true);
+        }
+    }
+
+    // ==================== REGISTRE DES TÂCHES ====================
+
+    /**
+     * Enregistre une tâche lancée par TaskExecutor.
+     *
+     * @param handle la poignée de la tâche (permet l'annulation depuis le popup)
+     */
+    public void taskStarted(TaskHandle<?> handle) {
+        synchronized (taskLock) {
+            runningTasks.add(new RunningTask(handle.getTaskName(), handle));
+            publishTasks(handle.getTaskName() + "...", false);
+        }
+    }
+
+    /**
+     * Met à jour la progression d'une tâche enregistrée.
+     * Peut être appelé depuis n'importe quel thread.
+     *
+     * @param handle la poignée de la tâche
+     * @param progress le pourcentage (0-100)
+     * @param message le message (null pour ne pas le changer)
+     */
+    public void taskProgress(TaskHandle<?> handle, int progress, String message) {
+        synchronized (taskLock) {
+            RunningTask task = findTask(handle);
+            if (task != null) {
+                task.progress = progress;
+                publishTasks(message != null && !message.isEmpty() ? message : null, false);
+            }
+        }
+    }
+
+    /**
+     * Retire une tâche terminée du registre.
+     *
+     * @param handle la poignée de la tâche
+     * @param message le message de fin
+     * @param error true si la tâche a échoué
+     */
+    public void taskFinished(TaskHandle<?> handle, String message, boolean error) {
+        synchronized (taskLock) {
+            RunningTask task = findTask(handle);
+            if (task != null) {
+                runningTasks.remove(task);
+            }
+            publishTasks(error ? "Erreur: " + message : message, error);
+        }
+    }
+
+    /**
+     * @return le nombre de tâches en cours
+     */
+    public int getRunningTaskCount() {
+        return runningTasks.size();
+    }
+
+    /**
+     * Publie le nombre de tâches et la progression combinée dans la barre de statut.
+     * La progression combinée est la moyenne des tâches dont la progression est connue.
+     * Appelé sous {@code taskLock} avec la modification du registre : la dernière
+     * publication reflète toujours l'état courant, quel que soit le thread appelant.
+     */
+    private void publishTasks(String message, boolean error) {
+        int count = 0;
+        int known = 0;
+        int total = 0;
+        for (RunningTask task : runningTasks) {
+            count++;
+            if (task.progress >= 0) {
+                known++;
+                total += Math.min(100, task.progress);
+            }
+        }
+        int combined = known > 0 ? total / known : StatusBarModel.NO_PROGRESS;
+        if (error) {
+            statusModel.setTasksWithError(count, combined, message);
+        } else {
+            statusModel.setTasks(count, combined, message);
+        }
+    }
+
+    private RunningTask findTask(TaskHandle<?> handle) {
+        for (RunningTask task : runningTasks) {
+            if (task.handle == handle) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private RunningTask lastAnonymousTask() {
+        RunningTask last = null;
+        for (RunningTask task : runningTasks) {
+            if (task.handle == null) {
+                last = task;
+            }
+        }
+        return last;
+    }
+
+    private void removeAnonymousTask() {
+        for (RunningTask task : runningTasks) {
+            if (task.handle == null) {
+                runningTasks.remove(task);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applique sur l'EDT les modifications regroupées de la barre de statut.
+     */
+    private void applyStatus(StatusBarModel.Update update) {
+        if (update.loading() != null) {
+            if (update.loading()) {
+                spinnerIcon.start();
+                spinnerLabel.setVisible(true);
+            } else {
+                spinnerIcon.stop();
+                spinnerLabel.setVisible(false);
+                taskListPopup.setVisible(false);
+            }
+        }
+
+        if (update.taskCount() != null) {
+            displayedTaskCount = update.taskCount();
+        }
+        if (update.progress() != null) {
+            displayedProgress = update.progress();
+        }
+
+        // "3 tâches · 45 %" à gauche du spinner
+        StringBuilder text = new StringBuilder();
+        if (displayedTaskCount > 1) {
+            text.append(displayedTaskCount).append(" tâches");
+        }
+        if (displayedProgress != StatusBarModel.NO_PROGRESS) {
+            if (text.length() > 0) {
+                text.append(" · ");
+            }
+            text.append(Math.max(0, Math.min(100, displayedProgress))).append(" %");
+        }
+        progressLabel.setText(text.toString());
+        progressLabel.setVisible(spinnerLabel.isVisible() && text.length() > 0);
+
+        if (update.message() != null) {
+            statusMessageLabel.setText(update.message());
+            if (update.error()) {
+                statusMessageLabel.setForeground(new Color(180, 60, 60));
+
+                // Remettre la couleur normale après 3 secondes
+                errorResetTimer.restart();
+            }
+        }
     }
 
     /**
@@ -534,6 +808,13 @@ public class MamiView {
         return mainPanel;
     }
 
+    /**
+     * @return le future du chargement de l'image de fond (complété une fois affichée)
+     */
+    public CompletableFuture<BufferedImage> getBackgroundLoading() {
+        return backgroundLoading;
+    }
+
     /**
      * @return le panel de navigation
      */
@@ -548,6 +829,13 @@ public class MamiView {
         return cardPanel;
     }
 
+    /**
+     * @return le cache des panels (statistiques d'éviction et de reconstruction)
+     */
+    public CardPanelCache getCardPanelCache() {
+        return cardCache;
+    }
+
     /**
      * @return l'icône du spinner
      */
@@ -555,6 +843,13 @@ public class MamiView {
         return spinnerIcon;
     }
 
+    /**
+     * @return le modèle de la barre de statut (statistiques de regroupement)
+     */
+    public StatusBarModel getStatusBarModel() {
+        return statusModel;
+    }
+
     /**
      * @return true si le spinner est actif
      */
@@ -571,6 +866,49 @@ public class MamiView {
         frame.setVisible(true);
     }
 
+    /**
+     * Tâche en cours affichée dans la barre de statut.
+     */
+    private static final class RunningTask implements TaskListPopup.Entry {
+
+        private final String name;
+        private final TaskHandle<?> handle;
+        private final long startNanos = System.nanoTime();
+        private volatile int progress = -1;
+
+        RunningTask(String name, TaskHandle<?> handle) {
+            this.name = name;
+            this.handle = handle;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getElapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+
+        @Override
+        public int getProgress() {
+            return progress;
+        }
+
+        @Override
+        public boolean isCancellable() {
+            return handle != null && !handle.isDone();
+        }
+
+        @Override
+        public void cancel() {
+            if (handle != null) {
+                handle.cancel();
+            }
+        }
+    }
+
     // ==================== PROPERTY CHANGE SUPPORT ====================
 
     public void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -0,0 +1,190 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.composants;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Horloge d'animation partagée par tous les composants animés
+ * (spinners, transitions...).
+ * <p>
+ * Un seul événement est posté sur l'EDT par image, quel que soit le nombre
+ * d'animations enregistrées. Si l'image précédente n'a pas encore été
+ * traitée (EDT chargé), l'image courante est abandonnée au lieu d'être
+ * mise en file. Lorsqu'aucune animation n'est visible, l'horloge ralentit
+ * à une cadence de veille ; elle s'arrête quand plus rien n'est enregistré.
+ *
+ * @author Association MAMI
+ */
+public final class AnimationClock {
+
+    /** Cadence normale (environ 60 images par seconde) */
+    private static final long ACTIVE_PERIOD_MS = 16;
+
+    /** Cadence de veille : sert uniquement à détecter le retour à l'écran */
+    private static final long IDLE_PERIOD_MS = 250;
+
+    private static final AnimationClock INSTANCE = new AnimationClock();
+
+    /**
+     * Animation recevant les images de l'horloge.
+     * Les méthodes sont appelées sur l'EDT.
+     */
+    public interface FrameListener {
+
+        /**
+         * Appelé à chaque image.
+         *
+         * @param frameNanos l'horodatage de l'image ({@link System#nanoTime()})
+         */
+        void onFrame(long frameNanos);
+
+        /**
+         * @return true si l'animation est actuellement visible à l'écran
+         */
+        default boolean isAnimationVisible() {
+            return true;
+        }
+    }
+
+    private final List<FrameListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mami-animation-clock");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Une image est en attente sur l'EDT
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+
+    private ScheduledFuture<?> ticker;
+    private long currentPeriod = 0;
+
+    private final AtomicLong framesDispatched = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+
+    private AnimationClock() {
+    }
+
+    /**
+     * @return l'horloge partagée de l'application
+     */
+    public static AnimationClock getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enregistre une animation. Sans effet si elle l'est déjà.
+     *
+     * @param listener l'animation à enregistrer
+     */
+    public void register(FrameListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        reschedule(ACTIVE_PERIOD_MS);
+    }
+
+    /**
+     * Retire une animation. L'horloge s'arrête s'il n'en reste aucune.
+     *
+     * @param listener l'animation à retirer
+     */
+    public void unregister(FrameListener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            reschedule(0);
+        }
+    }
+
+    /**
+     * @return le nombre d'animations enregistrées
+     */
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * @return le nombre d'images distribuées sur l'EDT
+     */
+    public long getFramesDispatched() {
+        return framesDispatched.get();
+    }
+
+    /**
+     * @return le nombre d'images abandonnées car l'EDT était occupé
+     */
+    public long getFramesDropped() {
+        return framesDropped.get();
+    }
+
+    /**
+     * @return true si l'horloge tourne à sa cadence normale
+     */
+    public synchronized boolean isActive() {
+        return currentPeriod == ACTIVE_PERIOD_MS;
+    }
+
+    /**
+     * Appelé par le thread de l'horloge : poste une image si la précédente est traitée.
+     */
+    private void tick() {
+        if (!framePending.compareAndSet(false, true)) {
+            framesDropped.incrementAndGet();
+            return;
+        }
+        SwingUtilities.invokeLater(this::dispatchFrame);
+    }
+
+    /**
+     * Distribue l'image aux animations visibles et adapte la cadence.
+     */
+    private void dispatchFrame() {
+        try {
+            long now = System.nanoTime();
+            boolean anyVisible = false;
+            for (FrameListener listener : listeners) {
+                if (listener.isAnimationVisible()) {
+                    anyVisible = true;
+                    listener.onFrame(now);
+                }
+            }
+            framesDispatched.incrementAndGet();
+
+            if (!listeners.isEmpty()) {
+                reschedule(anyVisible ? ACTIVE_PERIOD_MS : IDLE_PERIOD_MS);
+            }
+        } finally {
+            framePending.set(false);
+        }
+    }
+
+    /**
+     * Change la période de l'horloge (0 pour l'arrêter).
+     */
+    private synchronized void reschedule(long period) {
+        if (period == currentPeriod) {
+            return;
+        }
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+        currentPeriod = period;
+        if (period > 0) {
+            ticker = scheduler.scheduleAtFixedRate(this::tick, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+}
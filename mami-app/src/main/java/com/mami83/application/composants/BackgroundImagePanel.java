@@ -7,14 +7,25 @@ package com.mami83.application.composants;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.imageio.ImageIO;
 
 /**
  * Panel avec image de fond redimensionnable.
  * Remplace JXImagePanel de SwingX pour une version moderne.
+ * <p>
+ * En rendu par calque ({@link #setLayered(boolean)}), le fond est rendu une
+ * fois dans un calque opaque en cache, sur lequel les {@link CompositedPanel}
+ * descendants se composent : un petit repaint ne recopie que sa zone du
+ * calque au lieu de repeindre le fond depuis la racine de la fenêtre.
  *
  * @author Association MAMI
  */
@@ -37,6 +48,34 @@ public class BackgroundImagePanel extends JPanel {
     private BufferedImage backgroundImage;
     private Style style = Style.SCALED;
     private float alpha = 1.0f;
+    private boolean layered = false;
+
+    // Peintures en cours du fond ou d'un panel composé sur lui (EDT)
+    private int layerPaintDepth = 0;
+
+    // Cache du fond déjà redimensionné (reconstruit uniquement si la clé change)
+    private BufferedImage cachedBackground;
+    private int cachedWidth = -1;
+    private int cachedHeight = -1;
+    private double cachedScale = -1;
+    private Style cachedStyle;
+    private float cachedAlpha = -1f;
+    private boolean cachedLayered;
+    private Color cachedFill;
+    private GraphicsConfiguration cachedConfiguration;
+
+    // Exécuteur partagé pour le décodage des images hors EDT
+    private static final ExecutorService IMAGE_LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "mami-image-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Décodages lancés avant la création du panel (démarrage), par chemin
+    private static final Map<String, CompletableFuture<BufferedImage>> PRELOADED = new ConcurrentHashMap<>();
+
+    // Numéro du dernier chargement demandé (ignore les résultats obsolètes)
+    private int loadGeneration = 0;
 
     /**
      * Constructeur par défaut.
@@ -62,20 +101,76 @@ public class BackgroundImagePanel extends JPanel {
      * @param resourcePath le chemin de la ressource
      */
     public void loadImage(String resourcePath) {
-        try (InputStream is = getClass().getResourceAsStream(resourcePath)) {
-            if (is != null) {
-                backgroundImage = ImageIO.read(is);
+        loadGeneration++;
+        backgroundImage = readImage(resourcePath);
+        invalidateCache();
+        repaint();
+    }
+
+    /**
+     * Charge une image depuis les ressources en arrière-plan.
+     * Le dégradé par défaut est affiché immédiatement, puis remplacé
+     * sur l'EDT par l'image décodée dès qu'elle est disponible.
+     * Doit être appelé depuis l'EDT.
+     *
+     * @param resourcePath le chemin de la ressource
+     * @return un future complété (sur l'EDT) une fois l'image affichée
+     */
+    public CompletableFuture<BufferedImage> loadImageAsync(String resourcePath) {
+        int generation = ++loadGeneration;
+        backgroundImage = createDefaultBackground();
+        invalidateCache();
+        repaint();
+
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> decoding = PRELOADED.remove(resourcePath);
+        if (decoding == null) {
+            decoding = CompletableFuture.supplyAsync(() -> readImage(resourcePath), IMAGE_LOADER);
+        }
+        decoding.thenAccept(image -> SwingUtilities.invokeLater(() -> {
+            // Un chargement plus récent a été demandé entre-temps
+            if (generation == loadGeneration) {
+                backgroundImage = image;
+                invalidateCache();
                 repaint();
+            }
+            future.complete(image);
+        }));
+        return future;
+    }
+
+    /**
+     * Lance le décodage d'une image avant la création du panel (démarrage).
+     * Le prochain {@link #loadImageAsync(String)} du même chemin réutilise ce décodage.
+     * Peut être appelé depuis n'importe quel thread.
+     *
+     * @param resourcePath le chemin de la ressource
+     * @return le future du décodage
+     */
+    public static CompletableFuture<BufferedImage> preloadImage(String resourcePath) {
+        return PRELOADED.computeIfAbsent(resourcePath,
+                path -> CompletableFuture.supplyAsync(() -> readImage(path), IMAGE_LOADER));
+    }
+
+    /**
+     * Décode une image depuis les ressources.
+     * Retourne le fond par défaut si l'image est absente ou illisible.
+     */
+    private static BufferedImage readImage(String resourcePath) {
+        try (InputStream is = BackgroundImagePanel.class.getResourceAsStream(resourcePath)) {
+            if (is != null) {
+                BufferedImage image = ImageIO.read(is);
+                if (image != null) {
+                    return image;
+                }
+                System.err.println("Format d'image non reconnu: " + resourcePath + " - Utilisation du fond par défaut");
             } else {
                 System.err.println("Image non trouvée: " + resourcePath + " - Utilisation du fond par défaut");
-                backgroundImage = createDefaultBackground();
-                repaint();
             }
         } catch (IOException e) {
             System.err.println("Erreur lors du chargement de l'image: " + e.getMessage());
-            backgroundImage = createDefaultBackground();
-            repaint();
         }
+        return createDefaultBackground();
     }
 
     /**
@@ -83,7 +178,7 @@ public class BackgroundImagePanel extends JPanel {
      *
      * @return l'image de fond générée
      */
-    private BufferedImage createDefaultBackground() {
+    private static BufferedImage createDefaultBackground() {
         int width = 1920;
         int height = 1080;
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
@@ -114,7 +209,9 @@ public class BackgroundImagePanel extends JPanel {
      * @param image l'image à afficher
      */
     public void setBackgroundImage(BufferedImage image) {
+        loadGeneration++;
         this.backgroundImage = image;
+        invalidateCache();
         repaint();
     }
 
@@ -159,16 +256,204 @@ public class BackgroundImagePanel extends JPanel {
         return alpha;
     }
 
+    /**
+     * Active le rendu par calque : le fond devient opaque (couleur de fond
+     * sous l'image) et les {@link CompositedPanel} descendants se composent
+     * sur son cache.
+     *
+     * @param layered true pour le rendu par calque
+     */
+    public void setLayered(boolean layered) {
+        this.layered = layered;
+        setOpaque(layered);
+        invalidateCache();
+        repaint();
+    }
+
+    /**
+     * @return true si le rendu par calque est actif
+     */
+    public boolean isLayered() {
+        return layered;
+    }
+
+    /**
+     * Libère le cache du fond redimensionné.
+     * Le cache sera reconstruit au prochain affichage.
+     */
+    public void invalidateCache() {
+        if (cachedBackground != null) {
+            cachedBackground.flush();
+            cachedBackground = null;
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        invalidateCache();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        beginLayerPaint();
+        try {
+            super.paint(g);
+        } finally {
+            endLayerPaint();
+        }
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+        // En rendu par calque, la couleur de fond est incluse dans le cache
+        if (!layered || backgroundImage == null) {
+            super.paintComponent(g);
+        }
+        paintCache(g);
+    }
+
+    // ==================== CALQUE ====================
+
+    void beginLayerPaint() {
+        layerPaintDepth++;
+    }
 
+    void endLayerPaint() {
+        layerPaintDepth--;
+    }
+
+    /**
+     * Recopie sous un panel descendant la partie du calque qu'il recouvre.
+     * Sans effet si un ancêtre du panel (ou le fond) est déjà en train de
+     * peindre : le calque a alors déjà été dessiné sous lui.
+     *
+     * @param descendant le panel composé sur le calque
+     * @param g le contexte graphique du panel
+     */
+    void paintLayer(JComponent descendant, Graphics g) {
+        if (layerPaintDepth > 1) {
+            return;
+        }
         if (backgroundImage == null) {
+            Rectangle clip = g.getClipBounds();
+            g.setColor(getBackground());
+            if (clip != null) {
+                g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            } else {
+                g.fillRect(0, 0, descendant.getWidth(), descendant.getHeight());
+            }
+            return;
+        }
+        Point offset = SwingUtilities.convertPoint(descendant, 0, 0, this);
+        Graphics layerGraphics = g.create();
+        layerGraphics.translate(-offset.x, -offset.y);
+        paintCache(layerGraphics);
+        layerGraphics.dispose();
+    }
+
+    /**
+     * Dessine la partie du fond en cache comprise dans le clip.
+     */
+    private void paintCache(Graphics g) {
+        if (backgroundImage == null) {
+            return;
+        }
+
+        int panelWidth = getWidth();
+        int panelHeight = getHeight();
+        if (panelWidth <= 0 || panelHeight <= 0) {
             return;
         }
 
         Graphics2D g2d = (Graphics2D) g.create();
-        
+
+        // Échelle HiDPI : le cache est construit en pixels physiques
+        AffineTransform tx = g2d.getTransform();
+        double scale = Math.max(1.0, Math.max(Math.abs(tx.getScaleX()), Math.abs(tx.getScaleY())));
+
+        BufferedImage cache = getCachedBackground(panelWidth, panelHeight, scale);
+
+        // Chemin rapide : ne recopier que la zone à redessiner
+        Rectangle clip = g2d.getClipBounds();
+        Rectangle area = new Rectangle(0, 0, panelWidth, panelHeight);
+        if (clip != null) {
+            area = area.intersection(clip);
+        }
+        if (!area.isEmpty()) {
+            int sx1 = (int) Math.floor(area.x * scale);
+            int sy1 = (int) Math.floor(area.y * scale);
+            int sx2 = Math.min(cache.getWidth(), (int) Math.ceil((area.x + area.width) * scale));
+            int sy2 = Math.min(cache.getHeight(), (int) Math.ceil((area.y + area.height) * scale));
+            g2d.drawImage(cache,
+                    area.x, area.y, area.x + area.width, area.y + area.height,
+                    sx1, sy1, sx2, sy2,
+                    null);
+        }
+
+        g2d.dispose();
+    }
+
+    /**
+     * Retourne le fond redimensionné pour la taille courante du panel,
+     * en le reconstruisant si la taille, le style, la transparence,
+     * l'échelle ou l'écran ont changé.
+     */
+    private BufferedImage getCachedBackground(int panelWidth, int panelHeight, double scale) {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (cachedBackground != null
+                && cachedWidth == panelWidth
+                && cachedHeight == panelHeight
+                && cachedScale == scale
+                && cachedStyle == style
+                && cachedAlpha == alpha
+                && cachedLayered == layered
+                && (!layered || getBackground().equals(cachedFill))
+                && cachedConfiguration == gc) {
+            return cachedBackground;
+        }
+
+        invalidateCache();
+
+        int cacheWidth = (int) Math.ceil(panelWidth * scale);
+        int cacheHeight = (int) Math.ceil(panelHeight * scale);
+        // Calque opaque : couleur de fond sous l'image
+        BufferedImage cache;
+        if (layered) {
+            cache = gc != null
+                    ? gc.createCompatibleImage(cacheWidth, cacheHeight, Transparency.OPAQUE)
+                    : new BufferedImage(cacheWidth, cacheHeight, BufferedImage.TYPE_INT_RGB);
+        } else {
+            cache = gc != null
+                    ? gc.createCompatibleImage(cacheWidth, cacheHeight, Transparency.TRANSLUCENT)
+                    : new BufferedImage(cacheWidth, cacheHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+
+        Graphics2D g2d = cache.createGraphics();
+        if (layered) {
+            g2d.setColor(getBackground());
+            g2d.fillRect(0, 0, cacheWidth, cacheHeight);
+        }
+        g2d.scale(scale, scale);
+        renderBackground(g2d, panelWidth, panelHeight);
+        g2d.dispose();
+
+        cachedBackground = cache;
+        cachedWidth = panelWidth;
+        cachedHeight = panelHeight;
+        cachedScale = scale;
+        cachedStyle = style;
+        cachedAlpha = alpha;
+        cachedLayered = layered;
+        cachedFill = getBackground();
+        cachedConfiguration = gc;
+        return cache;
+    }
+
+    /**
+     * Dessine l'image de fond selon le style et la transparence courants.
+     */
+    private void renderBackground(Graphics2D g2d, int panelWidth, int panelHeight) {
         // Active l'antialiasing et le rendu de qualité
         g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
                              RenderingHints.VALUE_INTERPOLATION_BILINEAR);
@@ -180,8 +465,6 @@ public class BackgroundImagePanel extends JPanel {
         // Applique la transparence
         g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
 
-        int panelWidth = getWidth();
-        int panelHeight = getHeight();
         int imgWidth = backgroundImage.getWidth();
         int imgHeight = backgroundImage.getHeight();
 
@@ -214,7 +497,5 @@ public class BackgroundImagePanel extends JPanel {
                 g2d.drawImage(backgroundImage, x, y, scaledWidth, scaledHeight, null);
             }
         }
-
-        g2d.dispose();
     }
 }
@@ -0,0 +1,339 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.composants;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.swing.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Politique de cache des panels du CardLayout de la vue principale.
+ * <p>
+ * Seuls les panels qui savent être reconstruits (un {@link Rebuilder} est
+ * enregistré) peuvent être évincés. Au-delà de {@code maxResident} panels
+ * évinçables, le moins récemment affiché est retiré du CardLayout ; sous
+ * forte pression mémoire, tous les panels évinçables non affichés le sont.
+ * Un panel évincé est reconstruit quand on y revient, avec restauration de
+ * son état s'il implémente {@link Restorable}.
+ * <p>
+ * Toutes les méthodes doivent être appelées sur l'EDT.
+ *
+ * @author Association MAMI
+ */
+public class CardPanelCache {
+
+    /** Nombre de panels évinçables gardés en mémoire par défaut */
+    private static final int DEFAULT_MAX_RESIDENT = 4;
+
+    /** Part du tas au-delà de laquelle les panels sont libérés (après GC) */
+    private static final double DEFAULT_HEAP_PRESSURE = 0.85;
+
+    /**
+     * Panel dont l'état (filtres, sélection, défilement...) survit à une éviction.
+     */
+    public interface Restorable {
+
+        /**
+         * @return l'état à conserver, ou null
+         */
+        Object snapshotState();
+
+        /**
+         * Restaure l'état sur le panel reconstruit.
+         *
+         * @param state l'état retourné par {@link #snapshotState()}
+         */
+        void restoreState(Object state);
+    }
+
+    /**
+     * Reconstruit un panel évincé.
+     */
+    @FunctionalInterface
+    public interface Rebuilder {
+
+        /**
+         * Reconstruit le panel (éventuellement en tâche de fond).
+         *
+         * @param onReady reçoit le panel reconstruit, sur l'EDT
+         */
+        void rebuild(Consumer<JComponent> onReady);
+    }
+
+    // Panels présents dans le CardLayout, du moins au plus récemment affiché
+    private final LinkedHashMap<String, JComponent> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Rebuilder> rebuilders = new HashMap<>();
+    private final Map<String, Object> snapshots = new HashMap<>();
+    private final Consumer<String> evictor;
+
+    private int maxResident;
+    private String current;
+    private String lastAdded;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong pressureCount = new AtomicLong();
+
+    /**
+     * Constructeur.
+     * <p>
+     * Propriétés système : {@code mami.cards.maxResident} (défaut 4) et
+     * {@code mami.cards.heapPressure} (part du tas, défaut 0.85, 0 pour désactiver).
+     *
+     * @param evictor retire un panel évincé du CardLayout
+     */
+    public CardPanelCache(Consumer<String> evictor) {
+        this.evictor = evictor;
+        this.maxResident = Math.max(1, Integer.getInteger("mami.cards.maxResident", DEFAULT_MAX_RESIDENT));
+        double pressure = DEFAULT_HEAP_PRESSURE;
+        String value = System.getProperty("mami.cards.heapPressure");
+        if (value != null) {
+            try {
+                pressure = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                System.err.println("CardPanelCache: seuil mémoire invalide: " + value);
+            }
+        }
+        if (pressure > 0 && pressure < 1) {
+            installHeapPressureListener(pressure);
+        }
+    }
+
+    // ==================== CYCLE DE VIE ====================
+
+    /**
+     * Enregistre un panel ajouté au CardLayout.
+     *
+     * @param name le nom du panel
+     * @param panel le panel
+     */
+    public void added(String name, JComponent panel) {
+        resident.put(name, panel);
+        lastAdded = name;
+        Object state = snapshots.remove(name);
+        if (state != null && panel instanceof Restorable restorable) {
+            restorable.restoreState(state);
+        }
+    }
+
+    /**
+     * Enregistre l'affichage d'un panel résident et évince
+     * les panels les moins récemment affichés au-delà de la limite.
+     *
+     * @param name le nom du panel
+     */
+    public void shown(String name) {
+        current = name;
+        // Le premier affichage d'un panel tout juste ajouté n'est pas un succès du cache
+        if (resident.get(name) != null && rebuilders.containsKey(name) && !name.equals(lastAdded)) {
+            hitCount.incrementAndGet();
+        }
+        lastAdded = null;
+        enforceLimit();
+    }
+
+    /**
+     * Oublie un panel libéré explicitement : il ne sera pas reconstruit.
+     *
+     * @param name le nom du panel
+     */
+    public void removed(String name) {
+        resident.remove(name);
+        rebuilders.remove(name);
+        snapshots.remove(name);
+        if (name.equals(current)) {
+            current = null;
+        }
+    }
+
+    /**
+     * Rend un panel évinçable en indiquant comment le reconstruire.
+     *
+     * @param name le nom du panel
+     * @param rebuilder la reconstruction
+     */
+    public void setRebuilder(String name, Rebuilder rebuilder) {
+        rebuilders.put(name, rebuilder);
+        enforceLimit();
+    }
+
+    /**
+     * @param name le nom du panel
+     * @return true si le panel est dans le CardLayout
+     */
+    public boolean isResident(String name) {
+        return resident.containsKey(name);
+    }
+
+    /**
+     * @param name le nom du panel
+     * @return true si le panel a été évincé et peut être reconstruit
+     */
+    public boolean isEvicted(String name) {
+        return !resident.containsKey(name) && rebuilders.containsKey(name);
+    }
+
+    /**
+     * Reconstruit un panel évincé.
+     *
+     * @param name le nom du panel
+     * @param onReady reçoit le panel reconstruit, sur l'EDT
+     * @return false si le panel ne peut pas être reconstruit
+     */
+    public boolean rebuild(String name, Consumer<JComponent> onReady) {
+        Rebuilder rebuilder = rebuilders.get(name);
+        if (rebuilder == null) {
+            return false;
+        }
+        rebuildCount.incrementAndGet();
+        rebuilder.rebuild(onReady);
+        return true;
+    }
+
+    // ==================== ÉVICTION ====================
+
+    /**
+     * Définit le nombre de panels évinçables gardés en mémoire.
+     *
+     * @param maxResident le nombre maximal (au moins 1)
+     */
+    public void setMaxResident(int maxResident) {
+        this.maxResident = Math.max(1, maxResident);
+        enforceLimit();
+    }
+
+    /**
+     * @return le nombre de panels évinçables gardés en mémoire
+     */
+    public int getMaxResident() {
+        return maxResident;
+    }
+
+    /**
+     * Libère tous les panels évinçables sauf celui affiché.
+     */
+    public void trim() {
+        for (String name : evictable()) {
+            evict(name);
+        }
+    }
+
+    private void enforceLimit() {
+        List<String> candidates = evictable();
+        int count = candidates.size() + (current != null && rebuilders.containsKey(current)
+                && resident.containsKey(current) ? 1 : 0);
+        for (int i = 0; i < candidates.size() && count > maxResident; i++, count--) {
+            evict(candidates.get(i));
+        }
+    }
+
+    /**
+     * @return les panels évinçables non affichés, du moins au plus récemment affiché
+     */
+    private List<String> evictable() {
+        List<String> names = new ArrayList<>();
+        for (String name : resident.keySet()) {
+            if (rebuilders.containsKey(name) && !name.equals(current)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private void evict(String name) {
+        JComponent panel = resident.remove(name);
+        if (panel == null) {
+            return;
+        }
+        if (panel instanceof Restorable restorable) {
+            Object state = restorable.snapshotState();
+            if (state != null) {
+                snapshots.put(name, state);
+            }
+        }
+        evictionCount.incrementAndGet();
+        evictor.accept(name);
+    }
+
+    /**
+     * Libère les panels quand l'occupation du tas après GC dépasse le seuil.
+     * Seul le pool de l'ancienne génération est armé : Eden et Survivor (sans
+     * seuil d'occupation) sont pleins par construction et ne signalent rien.
+     */
+    private void installHeapPressureListener(double fraction) {
+        boolean installed = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                    && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * fraction));
+                installed = true;
+            }
+        }
+        if (!installed) {
+            return;
+        }
+
+        NotificationListener listener = (notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                SwingUtilities.invokeLater(() -> {
+                    pressureCount.incrementAndGet();
+                    trim();
+                });
+            }
+        };
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(listener, null, null);
+    }
+
+    // ==================== STATISTIQUES ====================
+
+    /**
+     * @return le nombre d'affichages d'un panel évinçable encore en mémoire
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return le nombre de reconstructions de panels évincés
+     */
+    public long getRebuildCount() {
+        return rebuildCount.get();
+    }
+
+    /**
+     * @return le nombre de panels évincés
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return le nombre d'alertes de pression mémoire reçues
+     */
+    public long getPressureCount() {
+        return pressureCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CardPanelCache[resident=" + resident.size() + ", max=" + maxResident
+                + ", hits=" + hitCount.get() + ", rebuilds=" + rebuildCount.get()
+                + ", evictions=" + evictionCount.get() + ", pressure=" + pressureCount.get() + "]";
+    }
+}
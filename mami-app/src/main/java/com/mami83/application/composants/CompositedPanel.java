@@ -0,0 +1,91 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.composants;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Conteneur transparent composé sur le calque du fond d'écran.
+ * <p>
+ * Quand le {@link BackgroundImagePanel} ancêtre est en rendu par calque, ce
+ * panel se déclare opaque et recopie sous lui la partie du calque en cache :
+ * le repaint d'un composant enfant part alors de ce panel au lieu de
+ * remonter jusqu'au fond, et ne coûte que la surface de la zone à
+ * redessiner. Sinon il se comporte comme un JPanel non opaque.
+ * <p>
+ * Les conteneurs situés entre ce panel et le fond ne doivent rien peindre
+ * (conteneurs non opaques sans décoration).
+ *
+ * @author Association MAMI
+ */
+public class CompositedPanel extends JPanel {
+
+    // Fond d'écran ancêtre (résolu à l'ajout dans la hiérarchie)
+    private BackgroundImagePanel background;
+
+    /**
+     * Constructeur par défaut.
+     */
+    public CompositedPanel() {
+        setOpaque(false);
+    }
+
+    /**
+     * Constructeur avec layout.
+     *
+     * @param layout le gestionnaire de layout
+     */
+    public CompositedPanel(LayoutManager layout) {
+        super(layout);
+        setOpaque(false);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        background = (BackgroundImagePanel) SwingUtilities.getAncestorOfClass(BackgroundImagePanel.class, this);
+    }
+
+    @Override
+    public void removeNotify() {
+        background = null;
+        super.removeNotify();
+    }
+
+    /**
+     * @return true si le panel est composé sur le calque du fond
+     */
+    @Override
+    public boolean isOpaque() {
+        BackgroundImagePanel layer = background;
+        return layer != null && layer.isLayered();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        BackgroundImagePanel layer = background;
+        if (layer == null) {
+            super.paint(g);
+            return;
+        }
+        layer.beginLayerPaint();
+        try {
+            super.paint(g);
+        } finally {
+            layer.endLayerPaint();
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (isOpaque()) {
+            background.paintLayer(this, g);
+        } else {
+            super.paintComponent(g);
+        }
+    }
+}
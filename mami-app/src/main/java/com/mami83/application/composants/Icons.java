@@ -11,7 +11,9 @@ import java.awt.geom.*;
 
 /**
  * Classe utilitaire fournissant des icônes vectorielles génériques.
- * Les icônes sont dessinées en code pour éviter les dépendances externes.
+ * Les icônes sont dessinées en code pour éviter les dépendances externes,
+ * puis rastérisées une seule fois par taille, couleur et échelle
+ * (voir {@link RasterizedIcon}).
  *
  * @author Association MAMI
  */
@@ -28,7 +30,7 @@ public class Icons {
     }
 
     public static Icon exitIcon(int size, Color color) {
-        return new Icon() {
+        return cached("exit", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -56,7 +58,7 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -67,7 +69,7 @@ public class Icons {
     }
 
     public static Icon homeIcon(int size, Color color) {
-        return new Icon() {
+        return cached("home", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -102,7 +104,7 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -113,7 +115,7 @@ public class Icons {
     }
 
     public static Icon childIcon(int size, Color color) {
-        return new Icon() {
+        return cached("child", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -143,7 +145,7 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -154,7 +156,7 @@ public class Icons {
     }
 
     public static Icon familyIcon(int size, Color color) {
-        return new Icon() {
+        return cached("family", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -190,7 +192,7 @@ public class Icons {
             
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -201,7 +203,7 @@ public class Icons {
     }
 
     public static Icon employeeIcon(int size, Color color) {
-        return new Icon() {
+        return cached("employee", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -231,7 +233,7 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -242,7 +244,7 @@ public class Icons {
     }
 
     public static Icon adminIcon(int size, Color color) {
-        return new Icon() {
+        return cached("admin", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -278,7 +280,7 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -289,7 +291,7 @@ public class Icons {
     }
 
     public static Icon globeIcon(int size, Color color) {
-        return new Icon() {
+        return cached("globe", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -315,7 +317,7 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -326,7 +328,7 @@ public class Icons {
     }
 
     public static Icon keyIcon(int size, Color color) {
-        return new Icon() {
+        return cached("key", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -353,7 +355,7 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
     }
 
     /**
@@ -364,7 +366,7 @@ public class Icons {
     }
 
     public static Icon genericIcon(int size, Color color) {
-        return new Icon() {
+        return cached("generic", size, color, new Icon() {
             @Override
             public void paintIcon(Component c, Graphics g, int x, int y) {
                 Graphics2D g2 = createGraphics(g);
@@ -391,7 +393,14 @@ public class Icons {
             }
             @Override public int getIconWidth() { return size; }
             @Override public int getIconHeight() { return size; }
-        };
+        });
+    }
+
+    /**
+     * Enveloppe une icône vectorielle dans une icône rastérisée en cache.
+     */
+    private static RasterizedIcon cached(String type, int size, Color color, Icon vectorIcon) {
+        return new RasterizedIcon(type, size, color, vectorIcon);
     }
 
     /**
@@ -0,0 +1,191 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.composants;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Icône qui rastérise une icône vectorielle une seule fois puis recopie l'image.
+ * <p>
+ * Chaque combinaison (type, taille, couleur, échelle HiDPI, teinte) est dessinée
+ * une fois dans une image translucide compatible avec l'écran, partagée par
+ * toutes les instances. Les variantes survol et désactivée sont dérivées de
+ * l'image déjà rastérisée, sans redessiner les formes vectorielles.
+ *
+ * @author Association MAMI
+ */
+public class RasterizedIcon implements Icon {
+
+    /** Opacité appliquée à la variante désactivée */
+    private static final float DISABLED_ALPHA = 0.4f;
+
+    // Images partagées par clé
+    private static final Map<Key, BufferedImage> CACHE = new ConcurrentHashMap<>();
+
+    private final String type;
+    private final int size;
+    private final Color color;
+    private final Icon vectorIcon;
+
+    // Filtre appliqué à l'image de base (null si aucune teinte)
+    private final Color tint;
+    private final boolean disabled;
+
+    /**
+     * Constructeur.
+     *
+     * @param type l'identifiant du dessin (ex : "exit", "home")
+     * @param size la taille de l'icône
+     * @param color la couleur du dessin
+     * @param vectorIcon l'icône vectorielle à rastériser
+     */
+    public RasterizedIcon(String type, int size, Color color, Icon vectorIcon) {
+        this(type, size, color, vectorIcon, null, false);
+    }
+
+    private RasterizedIcon(String type, int size, Color color, Icon vectorIcon, Color tint, boolean disabled) {
+        this.type = type;
+        this.size = size;
+        this.color = color;
+        this.vectorIcon = vectorIcon;
+        this.tint = tint;
+        this.disabled = disabled;
+    }
+
+    /**
+     * Retourne une variante recolorée (survol par exemple).
+     * Seule la couleur change, la transparence du dessin est conservée.
+     *
+     * @param tintColor la couleur de remplacement
+     * @return l'icône teintée
+     */
+    public RasterizedIcon tinted(Color tintColor) {
+        return new RasterizedIcon(type, size, color, vectorIcon, tintColor, false);
+    }
+
+    /**
+     * @return la variante grisée et atténuée pour l'état désactivé
+     */
+    public RasterizedIcon disabled() {
+        return new RasterizedIcon(type, size, color, vectorIcon, null, true);
+    }
+
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        Graphics2D g2 = (Graphics2D) g;
+        AffineTransform tx = g2.getTransform();
+        double scale = Math.max(1.0, Math.max(Math.abs(tx.getScaleX()), Math.abs(tx.getScaleY())));
+
+        BufferedImage image = getImage(c != null ? c.getGraphicsConfiguration() : null, scale);
+        g2.drawImage(image, x, y, size, size, null);
+    }
+
+    @Override
+    public int getIconWidth() {
+        return size;
+    }
+
+    @Override
+    public int getIconHeight() {
+        return size;
+    }
+
+    /**
+     * Vide le cache des icônes rastérisées (changement de thème, d'écran...).
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * @return le nombre d'images rastérisées en cache
+     */
+    public static int getCacheSize() {
+        return CACHE.size();
+    }
+
+    // ==================== RASTÉRISATION ====================
+
+    private BufferedImage getImage(GraphicsConfiguration gc, double scale) {
+        Key key = new Key(type, size, color.getRGB(), scale, tint != null ? tint.getRGB() : 0, disabled);
+        BufferedImage image = CACHE.get(key);
+        if (image == null) {
+            image = (tint == null && !disabled)
+                    ? rasterize(gc, scale)
+                    : filter(gc, new RasterizedIcon(type, size, color, vectorIcon).getImage(gc, scale));
+            CACHE.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Dessine l'icône vectorielle dans une image translucide en pixels physiques.
+     */
+    private BufferedImage rasterize(GraphicsConfiguration gc, double scale) {
+        int pixels = (int) Math.ceil(size * scale);
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(pixels, pixels, Transparency.TRANSLUCENT)
+                : new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g2 = image.createGraphics();
+        g2.scale(scale, scale);
+        vectorIcon.paintIcon(null, g2, 0, 0);
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Applique la teinte ou l'effet désactivé pixel par pixel sur l'image de base.
+     */
+    private BufferedImage filter(GraphicsConfiguration gc, BufferedImage source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int[] pixels = source.getRGB(0, 0, width, height, null, 0, width);
+
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            int a = argb >>> 24;
+            if (a == 0) {
+                continue;
+            }
+            if (disabled) {
+                int r = (argb >> 16) & 0xFF;
+                int gr = (argb >> 8) & 0xFF;
+                int b = argb & 0xFF;
+                int gray = (r * 30 + gr * 59 + b * 11) / 100;
+                gray = gray + (255 - gray) / 2; // éclaircit
+                a = Math.round(a * DISABLED_ALPHA);
+                pixels[i] = (a << 24) | (gray << 16) | (gray << 8) | gray;
+            } else {
+                pixels[i] = (a << 24) | (tint.getRGB() & 0x00FFFFFF);
+            }
+        }
+
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        result.setRGB(0, 0, width, height, pixels, 0, width);
+        if (gc == null) {
+            return result;
+        }
+
+        // Conversion au format de l'écran pour une recopie rapide
+        BufferedImage compatible = gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g2 = compatible.createGraphics();
+        g2.drawImage(result, 0, 0, null);
+        g2.dispose();
+        return compatible;
+    }
+
+    /**
+     * Clé du cache : tout ce qui influe sur les pixels produits.
+     */
+    private record Key(String type, int size, int rgb, double scale, int tintRgb, boolean disabled) {
+    }
+}
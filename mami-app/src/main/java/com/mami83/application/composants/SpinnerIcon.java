@@ -7,28 +7,52 @@ package com.mami83.application.composants;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Arc2D;
 import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Icône de spinner animé pour indiquer un chargement en cours.
  * Design moderne avec des arcs qui tournent.
+ * <p>
+ * Les 45 positions de l'animation sont pré-rendues une seule fois par
+ * taille, couleur et échelle dans une bande d'images partagée. Chaque
+ * image ne redessine que la zone de l'icône. L'animation est cadencée par
+ * l'{@link AnimationClock} partagée et se met en pause tant que le
+ * composant n'est pas affiché ou que la fenêtre est réduite.
  *
  * @author Association MAMI
  */
-public class SpinnerIcon implements Icon {
+public class SpinnerIcon implements Icon, AnimationClock.FrameListener {
+
+    /** Rotation de l'arc à chaque image (en degrés) */
+    private static final int ANGLE_STEP = 8;
+
+    /** Durée d'une image de l'animation (60 FPS) */
+    private static final long FRAME_NANOS = 16_000_000L;
+
+    /** Nombre d'images pour un tour complet */
+    private static final int FRAME_COUNT = 360 / ANGLE_STEP;
+
+    // Bandes d'images partagées par taille, couleur et échelle
+    private static final Map<StripKey, BufferedImage> STRIPS = new ConcurrentHashMap<>();
 
     private final int size;
     private final Color primaryColor;
     private final Color secondaryColor;
-    private final Timer animationTimer;
     
-    private double angle = 0;
+    private int frame = 0;
+    private long startNanos;
     private boolean running = false;
     private JComponent component;
 
+    // Position de la dernière peinture dans le composant (zone à rafraîchir)
+    private int lastX = -1;
+    private int lastY = -1;
+
     /**
      * Constructeur avec taille et couleur.
      *
@@ -44,17 +68,6 @@ public class SpinnerIcon implements Icon {
                 color.getBlue(), 
                 60
         );
-        
-        // Timer pour l'animation (60 FPS)
-        animationTimer = new Timer(16, e -> {
-            angle += 8;
-            if (angle >= 360) {
-                angle = 0;
-            }
-            if (component != null) {
-                component.repaint();
-            }
-        });
     }
 
     /**
@@ -79,7 +92,8 @@ public class SpinnerIcon implements Icon {
     public void start() {
         if (!running) {
             running = true;
-            animationTimer.start();
+            startNanos = System.nanoTime();
+            AnimationClock.getInstance().register(this);
         }
     }
 
@@ -88,8 +102,8 @@ public class SpinnerIcon implements Icon {
      */
     public void stop() {
         running = false;
-        animationTimer.stop();
-        angle = 0;
+        AnimationClock.getInstance().unregister(this);
+        frame = 0;
     }
 
     /**
@@ -99,47 +113,64 @@ public class SpinnerIcon implements Icon {
         return running;
     }
 
+    /**
+     * @return true si l'animation est suspendue (composant caché ou fenêtre réduite)
+     */
+    public boolean isPaused() {
+        return running && !isAnimationVisible();
+    }
+
+    /**
+     * Passe à l'image correspondant au temps écoulé et ne rafraîchit que la zone de l'icône.
+     * Les images sautées par l'horloge ne ralentissent donc pas la rotation.
+     */
     @Override
-    public void paintIcon(Component c, Graphics g, int x, int y) {
-        this.component = (JComponent) c;
-        
-        Graphics2D g2d = (Graphics2D) g.create();
-        
-        // Activation de l'antialiasing
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+    public void onFrame(long frameNanos) {
+        int next = (int) (((frameNanos - startNanos) / FRAME_NANOS) % FRAME_COUNT);
+        if (next == frame) {
+            return;
+        }
+        frame = next;
+        if (component != null && lastX >= 0) {
+            component.repaint(lastX, lastY, size, size);
+        }
+    }
 
-        int centerX = x + size / 2;
-        int centerY = y + size / 2;
-        int radius = (size - 4) / 2;
-        float strokeWidth = size / 8f;
+    /**
+     * @return true si le composant est affiché dans une fenêtre non réduite
+     */
+    @Override
+    public boolean isAnimationVisible() {
+        if (component == null) {
+            // Pas encore peint : on laisse tourner jusqu'au premier affichage
+            return true;
+        }
+        if (!component.isShowing()) {
+            return false;
+        }
+        Window window = SwingUtilities.getWindowAncestor(component);
+        return !(window instanceof Frame f) || (f.getExtendedState() & Frame.ICONIFIED) == 0;
+    }
 
-        // Dessiner le cercle de fond (couleur secondaire)
-        g2d.setColor(secondaryColor);
-        g2d.setStroke(new BasicStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        g2d.draw(new Ellipse2D.Double(
-                centerX - radius,
-                centerY - radius,
-                radius * 2,
-                radius * 2
-        ));
-
-        // Dessiner l'arc animé (couleur principale)
-        g2d.setColor(primaryColor);
-        g2d.setStroke(new BasicStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        
-        Arc2D arc = new Arc2D.Double(
-                centerX - radius,
-                centerY - radius,
-                radius * 2,
-                radius * 2,
-                angle,
-                90,  // Longueur de l'arc (90 degrés)
-                Arc2D.OPEN
-        );
-        g2d.draw(arc);
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        if (c instanceof JComponent jc) {
+            component = jc;
+        }
+        lastX = x;
+        lastY = y;
 
-        g2d.dispose();
+        Graphics2D g2d = (Graphics2D) g;
+        AffineTransform tx = g2d.getTransform();
+        double scale = Math.max(1.0, Math.max(Math.abs(tx.getScaleX()), Math.abs(tx.getScaleY())));
+
+        BufferedImage strip = getStrip(c != null ? c.getGraphicsConfiguration() : null, scale);
+        int pixels = strip.getHeight();
+        int sx = frame * pixels;
+        g2d.drawImage(strip,
+                x, y, x + size, y + size,
+                sx, 0, sx + pixels, pixels,
+                null);
     }
 
     @Override
@@ -151,4 +182,78 @@ public class SpinnerIcon implements Icon {
     public int getIconHeight() {
         return size;
     }
+
+    // ==================== PRÉ-RENDU ====================
+
+    /**
+     * Retourne la bande des images de l'animation, en la créant au besoin.
+     */
+    private BufferedImage getStrip(GraphicsConfiguration gc, double scale) {
+        StripKey key = new StripKey(size, primaryColor.getRGB(), scale);
+        return STRIPS.computeIfAbsent(key, k -> renderStrip(gc, scale));
+    }
+
+    /**
+     * Dessine les {@value #FRAME_COUNT} positions de l'arc côte à côte.
+     */
+    private BufferedImage renderStrip(GraphicsConfiguration gc, double scale) {
+        int pixels = (int) Math.ceil(size * scale);
+        int width = pixels * FRAME_COUNT;
+        BufferedImage strip = gc != null
+                ? gc.createCompatibleImage(width, pixels, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, pixels, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g2d = strip.createGraphics();
+        
+        // Activation de l'antialiasing
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+
+        int radius = (size - 4) / 2;
+        float strokeWidth = size / 8f;
+        BasicStroke stroke = new BasicStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+        g2d.setStroke(stroke);
+
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            Graphics2D fg = (Graphics2D) g2d.create();
+            fg.clipRect(i * pixels, 0, pixels, pixels);
+            fg.translate(i * pixels, 0);
+            fg.scale(scale, scale);
+
+            int centerX = size / 2;
+            int centerY = size / 2;
+
+            // Dessiner le cercle de fond (couleur secondaire)
+            fg.setColor(secondaryColor);
+            fg.draw(new Ellipse2D.Double(
+                    centerX - radius,
+                    centerY - radius,
+                    radius * 2,
+                    radius * 2
+            ));
+
+            // Dessiner l'arc animé (couleur principale)
+            fg.setColor(primaryColor);
+            fg.draw(new Arc2D.Double(
+                    centerX - radius,
+                    centerY - radius,
+                    radius * 2,
+                    radius * 2,
+                    i * ANGLE_STEP,
+                    90,  // Longueur de l'arc (90 degrés)
+                    Arc2D.OPEN
+            ));
+
+            fg.dispose();
+        }
+
+        g2d.dispose();
+        return strip;
+    }
+
+    /**
+     * Clé des bandes d'images partagées.
+     */
+    private record StripKey(int size, int rgb, double scale) {
+    }
 }
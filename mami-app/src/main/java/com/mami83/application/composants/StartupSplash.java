@@ -0,0 +1,146 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.composants;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Écran de démarrage affiché pendant l'initialisation de l'application.
+ * <p>
+ * Utilise l'écran natif de la JVM ({@code SplashScreen-Image} du manifeste),
+ * affiché avant même le chargement des classes Swing. Sans écran natif
+ * (lancement depuis l'IDE), une simple fenêtre AWT est ouverte à la place.
+ * Une barre de progression est dessinée en bas de l'écran ; la fenêtre de
+ * remplacement affiche aussi le libellé de l'étape en cours sous le logo.
+ *
+ * @author Association MAMI
+ */
+public final class StartupSplash {
+
+    private static final String LOGO_PATH = "/images/logo_mami.png";
+    private static final Color TEXT_COLOR = new Color(80, 80, 80);
+    private static final Color BAR_COLOR = new Color(52, 152, 219);
+    private static final int MARGIN = 20;
+    private static final int STATUS_HEIGHT = 30;
+
+    private final SplashScreen nativeSplash;
+    private final Window window;
+    private volatile String status = "";
+    private volatile int progress = 0;
+
+    private StartupSplash(SplashScreen nativeSplash, Window window) {
+        this.nativeSplash = nativeSplash;
+        this.window = window;
+    }
+
+    /**
+     * Affiche l'écran de démarrage.
+     *
+     * @return l'écran de démarrage (sans effet en mode headless)
+     */
+    public static StartupSplash show() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new StartupSplash(null, null);
+        }
+        SplashScreen splash = SplashScreen.getSplashScreen();
+        if (splash != null) {
+            return new StartupSplash(splash, null);
+        }
+
+        BufferedImage logo = readLogo();
+        if (logo == null) {
+            return new StartupSplash(null, null);
+        }
+        StartupSplash[] holder = new StartupSplash[1];
+        Window window = new Window((Frame) null) {
+            @Override
+            public void paint(Graphics g) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, getWidth(), getHeight());
+                g.drawImage(logo, MARGIN, MARGIN, null);
+                holder[0].paintStatus((Graphics2D) g, getWidth(), getHeight(), true);
+            }
+        };
+        holder[0] = new StartupSplash(null, window);
+        window.setSize(logo.getWidth() + 2 * MARGIN, logo.getHeight() + MARGIN + STATUS_HEIGHT);
+        window.setLocationRelativeTo(null);
+        window.setVisible(true);
+        return holder[0];
+    }
+
+    /**
+     * Affiche l'étape en cours.
+     *
+     * @param message le libellé de l'étape
+     * @param percent l'avancement (0-100)
+     */
+    public void setStatus(String message, int percent) {
+        status = message;
+        progress = Math.max(0, Math.min(100, percent));
+        if (nativeSplash != null) {
+            try {
+                if (nativeSplash.isVisible()) {
+                    Dimension size = nativeSplash.getSize();
+                    Graphics2D g = nativeSplash.createGraphics();
+                    // Le logo occupe tout l'écran natif : seule la barre est dessinée
+                    paintStatus(g, size.width, size.height, false);
+                    g.dispose();
+                    nativeSplash.update();
+                }
+            } catch (IllegalStateException e) {
+                // Écran natif déjà fermé par l'ouverture de la fenêtre principale
+            }
+        } else if (window != null) {
+            window.repaint();
+        }
+    }
+
+    /**
+     * Ferme l'écran de démarrage (une fois la fenêtre principale affichée).
+     */
+    public void close() {
+        if (nativeSplash != null) {
+            try {
+                if (nativeSplash.isVisible()) {
+                    nativeSplash.close();
+                }
+            } catch (IllegalStateException e) {
+                // Déjà fermé
+            }
+        }
+        if (window != null) {
+            window.dispose();
+        }
+    }
+
+    /**
+     * Dessine la barre de progression en bas de l'écran, et le libellé si demandé.
+     */
+    private void paintStatus(Graphics2D g, int width, int height, boolean withText) {
+        if (withText) {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(TEXT_COLOR);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+            g.drawString(status, MARGIN, height - 12);
+        }
+
+        g.setColor(BAR_COLOR);
+        g.fillRect(0, height - 4, width * progress / 100, 4);
+    }
+
+    private static BufferedImage readLogo() {
+        try (InputStream is = StartupSplash.class.getResourceAsStream(LOGO_PATH)) {
+            return is != null ? ImageIO.read(is) : null;
+        } catch (IOException e) {
+            System.err.println("Erreur lors du chargement du logo: " + e.getMessage());
+            return null;
+        }
+    }
+}
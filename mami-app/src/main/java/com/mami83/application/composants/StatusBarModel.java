@@ -0,0 +1,249 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.composants;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Modèle de la barre de statut, modifiable depuis n'importe quel thread.
+ * <p>
+ * Les modifications sont regroupées et appliquées sur l'EDT au plus une fois
+ * par image (~16 ms) : seuls le dernier message, la dernière progression et
+ * le dernier état du spinner sont affichés. Une boucle qui publie sa
+ * progression en continu ne sature donc plus l'EDT.
+ *
+ * @author Association MAMI
+ */
+public class StatusBarModel {
+
+    /** Intervalle minimal entre deux applications sur l'EDT */
+    private static final int FRAME_MS = 16;
+
+    /** Progression : masquer le pourcentage */
+    public static final int NO_PROGRESS = -1;
+
+    /**
+     * Modifications à appliquer. Un champ null signifie "inchangé".
+     *
+     * @param message le nouveau message
+     * @param error true si le message est une erreur
+     * @param progress la nouvelle progression ({@link #NO_PROGRESS} pour la masquer)
+     * @param loading le nouvel état du spinner
+     * @param taskCount le nouveau nombre de tâches en cours
+     */
+    public record Update(String message, boolean error, Integer progress, Boolean loading, Integer taskCount) {
+    }
+
+    private final Consumer<Update> applier;
+    private final Timer throttleTimer;
+
+    // État en attente (protégé par this)
+    private String pendingMessage;
+    private boolean pendingError;
+    private Integer pendingProgress;
+    private Boolean pendingLoading;
+    private Integer pendingTaskCount;
+    private boolean flushScheduled = false;
+
+    // Dernière application (EDT uniquement)
+    private long lastApplyNanos = 0;
+
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong applyCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Constructeur.
+     *
+     * @param applier appelé sur l'EDT avec les modifications regroupées
+     */
+    public StatusBarModel(Consumer<Update> applier) {
+        this.applier = applier;
+        this.throttleTimer = new Timer(FRAME_MS, e -> flush());
+        this.throttleTimer.setRepeats(false);
+    }
+
+    /**
+     * Définit le message de statut.
+     *
+     * @param message le message à afficher
+     */
+    public void setMessage(String message) {
+        update(message, false, null, null, null);
+    }
+
+    /**
+     * Définit un message d'erreur.
+     *
+     * @param message le message d'erreur
+     */
+    public void setError(String message) {
+        update(message, true, null, null, null);
+    }
+
+    /**
+     * Définit la progression.
+     *
+     * @param percent le pourcentage (0-100), ou {@link #NO_PROGRESS}
+     */
+    public void setProgress(int percent) {
+        update(null, false, percent, null, null);
+    }
+
+    /**
+     * Définit la progression et le message.
+     *
+     * @param percent le pourcentage (0-100)
+     * @param message le message (ignoré si null ou vide)
+     */
+    public void setProgress(int percent, String message) {
+        update(message != null && !message.isEmpty() ? message : null, false, percent, null, null);
+    }
+
+    /**
+     * Démarre ou arrête le spinner, avec un message optionnel.
+     *
+     * @param loading true pour démarrer le spinner
+     * @param message le message (null pour ne pas le changer)
+     */
+    public void setLoading(boolean loading, String message) {
+        update(message, false, loading ? null : NO_PROGRESS, loading, null);
+    }
+
+    /**
+     * Arrête le spinner en affichant une erreur.
+     *
+     * @param message le message d'erreur
+     */
+    public void failLoading(String message) {
+        update(message, true, NO_PROGRESS, false, null);
+    }
+
+    /**
+     * Définit le nombre de tâches en cours, la progression combinée
+     * et le message, en une seule modification.
+     *
+     * @param taskCount le nombre de tâches en cours
+     * @param percent la progression combinée, ou {@link #NO_PROGRESS}
+     * @param message le message (null pour ne pas le changer)
+     */
+    public void setTasks(int taskCount, int percent, String message) {
+        update(message, false, percent, taskCount > 0, taskCount);
+    }
+
+    /**
+     * Définit le nombre de tâches en cours et affiche une erreur.
+     *
+     * @param taskCount le nombre de tâches encore en cours
+     * @param percent la progression combinée, ou {@link #NO_PROGRESS}
+     * @param message le message d'erreur
+     */
+    public void setTasksWithError(int taskCount, int percent, String message) {
+        update(message, true, percent, taskCount > 0, taskCount);
+    }
+
+    // ==================== STATISTIQUES ====================
+
+    /**
+     * @return le nombre de modifications reçues
+     */
+    public long getUpdateCount() {
+        return updateCount.get();
+    }
+
+    /**
+     * @return le nombre d'applications effectives sur l'EDT
+     */
+    public long getApplyCount() {
+        return applyCount.get();
+    }
+
+    /**
+     * @return le nombre de modifications regroupées avec une application déjà prévue
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return le nombre de valeurs remplacées avant d'avoir été affichées
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // ==================== INTERNE ====================
+
+    private void update(String message, boolean error, Integer progress, Boolean loading, Integer taskCount) {
+        updateCount.incrementAndGet();
+        boolean schedule;
+        synchronized (this) {
+            if (message != null) {
+                if (pendingMessage != null) {
+                    droppedCount.incrementAndGet();
+                }
+                pendingMessage = message;
+                pendingError = error;
+            }
+            if (progress != null) {
+                if (pendingProgress != null) {
+                    droppedCount.incrementAndGet();
+                }
+                pendingProgress = progress;
+            }
+            if (loading != null) {
+                pendingLoading = loading;
+            }
+            if (taskCount != null) {
+                pendingTaskCount = taskCount;
+            }
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+
+        if (schedule) {
+            SwingUtilities.invokeLater(this::scheduleFlush);
+        } else {
+            coalescedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Applique immédiatement si la dernière application date d'au moins une image,
+     * sinon attend la fin de l'image courante (EDT).
+     */
+    private void scheduleFlush() {
+        long elapsedMs = (System.nanoTime() - lastApplyNanos) / 1_000_000;
+        if (elapsedMs >= FRAME_MS) {
+            flush();
+        } else if (!throttleTimer.isRunning()) {
+            throttleTimer.setInitialDelay((int) (FRAME_MS - elapsedMs));
+            throttleTimer.start();
+        }
+    }
+
+    /**
+     * Applique les modifications en attente (EDT).
+     */
+    private void flush() {
+        Update update;
+        synchronized (this) {
+            update = new Update(pendingMessage, pendingError, pendingProgress, pendingLoading, pendingTaskCount);
+            pendingMessage = null;
+            pendingError = false;
+            pendingProgress = null;
+            pendingLoading = null;
+            pendingTaskCount = null;
+            flushScheduled = false;
+        }
+        lastApplyNanos = System.nanoTime();
+        applyCount.incrementAndGet();
+        applier.accept(update);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.composants;
+
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Popup listant les tâches en cours : nom, durée écoulée, pourcentage
+ * et bouton d'annulation. Le contenu est rafraîchi tant que le popup
+ * est affiché.
+ *
+ * @author Association MAMI
+ */
+public class TaskListPopup extends JPopupMenu {
+
+    /** Intervalle de rafraîchissement du popup */
+    private static final int REFRESH_MS = 500;
+
+    /**
+     * Tâche affichée dans le popup.
+     */
+    public interface Entry {
+
+        /**
+         * @return le nom de la tâche
+         */
+        String getName();
+
+        /**
+         * @return la durée écoulée depuis le lancement (ms)
+         */
+        long getElapsedMillis();
+
+        /**
+         * @return le pourcentage (0-100), ou -1 si inconnu
+         */
+        int getProgress();
+
+        /**
+         * @return true si la tâche peut être annulée
+         */
+        boolean isCancellable();
+
+        /**
+         * Demande l'annulation de la tâche.
+         */
+        void cancel();
+    }
+
+    private final Supplier<List<? extends Entry>> entries;
+    private final JPanel content;
+    private final Timer refreshTimer;
+
+    /**
+     * Constructeur.
+     *
+     * @param entries fournit la liste des tâches en cours (appelé sur l'EDT)
+     */
+    public TaskListPopup(Supplier<List<? extends Entry>> entries) {
+        this.entries = entries;
+
+        content = new JPanel(new MigLayout("wrap 4, insets 8, gap 10 4", "[200!][right][right][]"));
+        content.setOpaque(false);
+        add(content);
+
+        refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+    }
+
+    /**
+     * Affiche le popup au-dessus du composant donné, aligné à droite.
+     *
+     * @param invoker le composant d'ancrage (spinner de la barre de statut)
+     */
+    public void showAbove(Component invoker) {
+        refresh();
+        Dimension size = getPreferredSize();
+        show(invoker, invoker.getWidth() - size.width, -size.height);
+        refreshTimer.start();
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        super.setVisible(visible);
+        if (!visible) {
+            refreshTimer.stop();
+        }
+    }
+
+    /**
+     * Reconstruit la liste des tâches.
+     */
+    private void refresh() {
+        List<? extends Entry> tasks = entries.get();
+        if (tasks.isEmpty() && isVisible()) {
+            setVisible(false);
+            return;
+        }
+
+        content.removeAll();
+        for (Entry task : tasks) {
+            JLabel nameLabel = new JLabel(task.getName());
+            nameLabel.setFont(nameLabel.getFont().deriveFont(Font.BOLD, 12f));
+            content.add(nameLabel);
+
+            content.add(createDetailLabel(formatElapsed(task.getElapsedMillis())));
+
+            int progress = task.getProgress();
+            content.add(createDetailLabel(progress >= 0 ? progress + " %" : "…"));
+
+            JButton cancelButton = new JButton("Annuler");
+            cancelButton.setFont(cancelButton.getFont().deriveFont(11f));
+            cancelButton.setEnabled(task.isCancellable());
+            cancelButton.addActionListener(e -> {
+                task.cancel();
+                cancelButton.setEnabled(false);
+            });
+            content.add(cancelButton);
+        }
+
+        content.revalidate();
+        content.repaint();
+        pack();
+    }
+
+    private JLabel createDetailLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(label.getFont().deriveFont(11f));
+        label.setForeground(new Color(100, 100, 100));
+        return label;
+    }
+
+    /**
+     * Formate une durée en "m:ss".
+     */
+    private static String formatElapsed(long millis) {
+        long seconds = millis / 1000;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+}
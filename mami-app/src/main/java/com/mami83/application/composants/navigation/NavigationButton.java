@@ -5,6 +5,8 @@
  */
 package com.mami83.application.composants.navigation;
 
+import com.mami83.application.composants.RasterizedIcon;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.function.Consumer;
@@ -18,6 +20,9 @@ import java.util.function.Consumer;
  */
 public class NavigationButton extends JButton {
 
+    // Couleur du texte et de l'icône au survol
+    private static final Color HOVER_COLOR = new Color(30, 100, 180);
+
     private String registerName = "";
     private String cardPanelToFree;
     private Consumer<String> panelRemover;
@@ -96,7 +101,7 @@ public class NavigationButton extends JButton {
             @Override
             public void mouseEntered(java.awt.event.MouseEvent e) {
                 originalFg = getForeground();
-                setForeground(new Color(30, 100, 180));
+                setForeground(HOVER_COLOR);
             }
             
             @Override
@@ -106,6 +111,22 @@ public class NavigationButton extends JButton {
         });
     }
 
+    /**
+     * Définit l'icône du bouton.
+     * Pour une icône rastérisée, les variantes survol et désactivée
+     * sont dérivées de l'image en cache.
+     *
+     * @param icon l'icône à afficher
+     */
+    @Override
+    public void setIcon(Icon icon) {
+        super.setIcon(icon);
+        if (icon instanceof RasterizedIcon rasterizedIcon) {
+            setRolloverIcon(rasterizedIcon.tinted(HOVER_COLOR));
+            setDisabledIcon(rasterizedIcon.disabled());
+        }
+    }
+
     /**
      * Définit le callback pour supprimer un panel.
      *
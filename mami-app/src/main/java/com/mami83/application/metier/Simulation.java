@@ -0,0 +1,159 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier;
+
+import com.mami83.application.metier.facturation.Avoir;
+import com.mami83.application.metier.facturation.Contrat;
+import com.mami83.application.metier.pointage.PointageStore;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Jeux de données simulés, en attendant l'accès à la base.
+ * Les données sont déterministes (graine fixe) pour un jour donné.
+ *
+ * @author Association MAMI
+ */
+public final class Simulation {
+
+    /** Nombre d'enfants inscrits */
+    public static final int NOMBRE_ENFANTS = 300;
+
+    /** Nombre de places agréées */
+    public static final int PLACES = 250;
+
+    /** Profondeur de l'historique de pointage (années) */
+    public static final int ANNEES_HISTORIQUE = 3;
+
+    private static final long GRAINE = 83;
+
+    private static final String[] PRENOMS = {
+            "Léa", "Hugo", "Chloé", "Louis", "Emma", "Gabriel", "Jade", "Raphaël", "Louise", "Arthur",
+            "Alice", "Jules", "Lina", "Adam", "Rose", "Maël", "Anna", "Lucas", "Mia", "Nathan"
+    };
+
+    private static final String[] NOMS = {
+            "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+            "Simon", "Laurent", "Lefebvre", "Michel", "Garcia"
+    };
+
+    private static final String[] MOTIFS_AVOIR = {
+            "Fermeture exceptionnelle", "Absence pour maladie", "Régularisation du mois précédent"
+    };
+
+    private Simulation() {
+    }
+
+    /**
+     * @param childId l'identifiant de l'enfant (à partir de 1)
+     * @return le nom de l'enfant
+     */
+    public static String childName(int childId) {
+        int index = childId - 1;
+        return PRENOMS[index % PRENOMS.length] + " " + NOMS[(index / PRENOMS.length) % NOMS.length];
+    }
+
+    /**
+     * @param childId l'identifiant de l'enfant
+     * @return l'identifiant de sa famille (fratries de deux enfants)
+     */
+    public static int familyOf(int childId) {
+        return (childId + 1) / 2;
+    }
+
+    /**
+     * Contrats : un par enfant sur toute la durée de l'historique, de 8h à
+     * 17h (ou 9h à 16h30), 5 jours ou 4 jours sans le mercredi, tarif horaire
+     * selon les revenus de la famille.
+     *
+     * @param today le jour courant
+     * @return les contrats simulés
+     */
+    public static List<Contrat> contrats(LocalDate today) {
+        Random random = new Random(GRAINE + 1);
+        LocalDate start = today.minusYears(ANNEES_HISTORIQUE);
+        LocalDate end = today.plusYears(1);
+        List<Contrat> contrats = new ArrayList<>();
+        for (int childId = 1; childId <= NOMBRE_ENFANTS; childId++) {
+            EnumSet<DayOfWeek> days = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+            if (random.nextInt(3) == 0) {
+                days.remove(DayOfWeek.WEDNESDAY);
+            }
+            boolean shortDay = random.nextBoolean();
+            contrats.add(new Contrat(childId, familyOf(childId), start, end,
+                    shortDay ? 540 : 480, shortDay ? 990 : 1020, days, 50 + random.nextInt(350)));
+        }
+        return contrats;
+    }
+
+    /**
+     * Avoirs : environ une famille sur douze en reçoit un chaque mois,
+     * de 5 à 50 euros.
+     *
+     * @param today le jour courant
+     * @return les avoirs simulés, du début de l'historique au mois courant
+     */
+    public static List<Avoir> avoirs(LocalDate today) {
+        Random random = new Random(GRAINE + 2);
+        int familles = familyOf(NOMBRE_ENFANTS);
+        List<Avoir> avoirs = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(today.minusYears(ANNEES_HISTORIQUE));
+             !month.isAfter(YearMonth.from(today)); month = month.plusMonths(1)) {
+            for (int familyId = 1; familyId <= familles; familyId++) {
+                if (random.nextInt(12) == 0) {
+                    avoirs.add(new Avoir(familyId, month, MOTIFS_AVOIR[random.nextInt(MOTIFS_AVOIR.length)],
+                            500 + random.nextInt(4501)));
+                }
+            }
+        }
+        return avoirs;
+    }
+
+    /**
+     * Historique de pointage : chaque jour ouvré, environ 85 % des enfants
+     * arrivent entre 7h30 et 9h30 et repartent entre 16h et 18h30.
+     * Le jour courant, les enfants déjà arrivés ne sont pas encore repartis.
+     *
+     * @param today le jour courant
+     * @return les pointages simulés
+     */
+    public static PointageStore pointages(LocalDate today) {
+        LocalDate origin = today.minusYears(ANNEES_HISTORIQUE);
+        PointageStore store = new PointageStore(origin);
+        for (int childId = 1; childId <= NOMBRE_ENFANTS; childId++) {
+            store.registerChild(childId);
+        }
+
+        Random random = new Random(GRAINE);
+        for (LocalDate day = origin; day.isBefore(today); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            for (int childId = 1; childId <= NOMBRE_ENFANTS; childId++) {
+                if (random.nextInt(100) < 85) {
+                    store.record(childId, day, 450 + random.nextInt(120), 960 + random.nextInt(150));
+                }
+            }
+        }
+
+        LocalTime now = LocalTime.now();
+        int minuteNow = now.getHour() * 60 + now.getMinute();
+        for (int childId = 1; childId <= NOMBRE_ENFANTS; childId++) {
+            int arrival = 450 + random.nextInt(120);
+            if (random.nextInt(100) < 85 && arrival <= minuteNow) {
+                store.arrive(childId, today, arrival);
+            }
+        }
+        return store;
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.document;
+
+import com.mami83.application.util.TaskExecutor;
+
+import java.awt.*;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.zip.Deflater;
+
+/**
+ * Rendu des factures et des attestations fiscales en PDF.
+ * <p>
+ * Les deux modèles (logo, signature, polices, décor) sont compilés une seule
+ * fois pour toute l'application, au premier rendu. Les documents sont lus
+ * en flux depuis les fichiers de factures ({@code FacturationMensuelle}) et
+ * écrits un par un sur disque : la mémoire utilisée ne dépend pas du nombre
+ * de documents, et les images ne sont jamais redécodées.
+ * <p>
+ * Les rendus sont longs : ils sont prévus pour une tâche
+ * {@link TaskExecutor.Priority#BACKGROUND} et consultent l'annulation
+ * entre deux documents.
+ *
+ * @author Association MAMI
+ */
+public final class DocumentRenderer {
+
+    private static final Color COULEUR = new Color(46, 204, 113);
+    private static final Color BANDEAU = new Color(226, 247, 235);
+    private static final Color TRAIT = new Color(180, 180, 180);
+
+    private static final float MARGE = 40;
+    private static final float DROITE = PdfTemplate.LARGEUR - MARGE;
+    private static final float HAUT_TABLE = 600;
+    private static final float HAUTEUR_LIGNE = 18;
+
+    /** Nombre de lignes détaillées sur une facture (les suivantes sont regroupées) */
+    static final int MAX_LIGNES = 24;
+
+    private static final DateTimeFormatter MOIS = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.FRENCH);
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final String INCOMPLETE = "Facturation incomplète : reprendre la génération des factures";
+
+    private final PdfContent content = new PdfContent();
+    private final Deflater deflater = new Deflater();
+    private long bytes;
+
+    private DocumentRenderer() {
+    }
+
+    /**
+     * Bilan d'un rendu.
+     *
+     * @param directory le dossier des documents
+     * @param documents le nombre de documents écrits
+     * @param bytes la taille totale des documents (octets)
+     */
+    public record Bilan(Path directory, int documents, long bytes) {
+    }
+
+    // ==================== FACTURES ====================
+
+    /**
+     * Rend en PDF toutes les factures d'un fichier de facturation complet.
+     *
+     * @param factures le fichier de factures du mois
+     * @param directory le dossier des documents (créé si besoin)
+     * @param reporter la progression et l'annulation
+     * @return le bilan du rendu
+     * @throws IOException si le fichier est illisible, incomplet, ou en cas d'erreur d'écriture
+     */
+    public static Bilan renderFactures(Path factures, Path directory, TaskExecutor.ProgressReporter reporter)
+            throws IOException {
+        Files.createDirectories(directory);
+        DocumentRenderer renderer = new DocumentRenderer();
+        try {
+            return renderer.factures(factures, directory, reporter);
+        } finally {
+            renderer.deflater.end();
+        }
+    }
+
+    private Bilan factures(Path factures, Path directory, TaskExecutor.ProgressReporter reporter) throws IOException {
+        // Aucun document tant que la facturation n'est pas terminée (montants de la dernière facture coupés...)
+        if (!isComplete(factures)) {
+            throw new IOException(INCOMPLETE);
+        }
+        PdfTemplate template = ModeleFacture.TEMPLATE;
+        long size = Math.max(1, Files.size(factures));
+        long read = 0;
+        int documents = 0;
+        List<String[]> lignes = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(factures, StandardCharsets.UTF_8)) {
+            in.readLine();
+            String line;
+            while ((line = in.readLine()) != null) {
+                read += line.length() + 1;
+                String[] fields = line.split(";", -1);
+                if (fields.length < 7) {
+                    // Ligne coupée par une interruption
+                    break;
+                }
+                if (fields[0].equals("FIN")) {
+                    reporter.updateProgress(100, documents + " factures");
+                    return new Bilan(directory, documents, bytes);
+                }
+                if (!fields[3].equals("Total")) {
+                    lignes.add(fields);
+                    continue;
+                }
+
+                checkCancelled(reporter);
+                content.reset();
+                drawFacture(fields, lignes);
+                write(template, directory.resolve("Facture-" + fields[0] + ".pdf"));
+                lignes.clear();
+                documents++;
+                if (documents % 10 == 0) {
+                    reporter.updateProgress((int) Math.min(99, read * 100 / size), documents + " factures");
+                }
+            }
+        }
+        throw new IOException(INCOMPLETE);
+    }
+
+    /**
+     * Vérifie qu'un fichier de factures est complet : ligne « FIN » présente,
+     * avec le nombre de factures et le total du fichier.
+     *
+     * @param factures le fichier de factures du mois
+     * @return true si la génération du fichier est terminée
+     * @throws IOException si le fichier est illisible
+     */
+    private static boolean isComplete(Path factures) throws IOException {
+        int count = 0;
+        long total = 0;
+        try (BufferedReader in = Files.newBufferedReader(factures, StandardCharsets.UTF_8)) {
+            in.readLine();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split(";", -1);
+                if (fields.length < 7) {
+                    return false;
+                }
+                if (fields[0].equals("FIN")) {
+                    return fields[1].equals(Integer.toString(count)) && parseCents(fields[6]) == total;
+                }
+                if (fields[3].equals("Total")) {
+                    count++;
+                    total += parseCents(fields[6]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private static PdfTemplate compileFacture() {
+        return PdfTemplate.compile(Map.of("Logo", new PdfTemplate.Image("/images/logo_mami.png", MARGE, 770, 160)),
+                decor -> {
+                    decor.textRight(DROITE, 785, PdfContent.GRAS, 22, "FACTURE");
+                    decor.text(MARGE, 750, PdfContent.GRAS, 10, "Association MAMI");
+                    decor.fillRect(MARGE, HAUT_TABLE, DROITE - MARGE, 20, BANDEAU);
+                    decor.text(MARGE + 8, HAUT_TABLE + 6, PdfContent.GRAS, 10, "Désignation");
+                    decor.textRight(360, HAUT_TABLE + 6, PdfContent.GRAS, 10, "Heures");
+                    decor.textRight(450, HAUT_TABLE + 6, PdfContent.GRAS, 10, "Tarif horaire");
+                    decor.textRight(DROITE - 8, HAUT_TABLE + 6, PdfContent.GRAS, 10, "Montant");
+                    footer(decor, "Facture payable à réception - merci de rappeler le numéro de facture");
+                });
+    }
+
+    /**
+     * Dessine la partie variable d'une facture.
+     *
+     * @param total la ligne « Total » du fichier
+     * @param lignes les lignes de la facture
+     */
+    private void drawFacture(String[] total, List<String[]> lignes) {
+        String numero = total[0];
+        YearMonth month = YearMonth.of(Integer.parseInt(numero.substring(0, 4)),
+                Integer.parseInt(numero.substring(4, 6)));
+        content.text(MARGE, 700, PdfContent.GRAS, 13, "Facture n° " + numero);
+        content.text(MARGE, 683, PdfContent.NORMAL, 10, "Famille n° " + total[1]);
+        content.text(MARGE, 668, PdfContent.NORMAL, 10, "Période : " + MOIS.format(month));
+        content.textRight(DROITE, 700, PdfContent.NORMAL, 10,
+                "Date : " + DATE.format(month.plusMonths(1).atDay(1)));
+
+        float y = HAUT_TABLE - HAUTEUR_LIGNE;
+        long autres = 0;
+        for (int i = 0; i < lignes.size(); i++) {
+            String[] ligne = lignes.get(i);
+            if (i >= MAX_LIGNES - 1 && lignes.size() > MAX_LIGNES) {
+                autres += parseCents(ligne[6]);
+                continue;
+            }
+            content.text(MARGE + 8, y, PdfContent.NORMAL, 10, ligne[3]);
+            if (!ligne[4].isEmpty()) {
+                content.textRight(360, y, PdfContent.NORMAL, 10, ligne[4].replace('.', ','));
+                content.textRight(450, y, PdfContent.NORMAL, 10, formatEuros(parseCents(ligne[5])));
+            }
+            content.textRight(DROITE - 8, y, PdfContent.NORMAL, 10, formatEuros(parseCents(ligne[6])));
+            y -= HAUTEUR_LIGNE;
+        }
+        if (lignes.size() > MAX_LIGNES) {
+            content.text(MARGE + 8, y, PdfContent.NORMAL, 10, "Autres lignes (" + (lignes.size() - MAX_LIGNES + 1) + ")");
+            content.textRight(DROITE - 8, y, PdfContent.NORMAL, 10, formatEuros(autres));
+            y -= HAUTEUR_LIGNE;
+        }
+
+        long cents = parseCents(total[6]);
+        content.line(MARGE, y + 10, DROITE, y + 10, 0.5f, TRAIT);
+        content.text(MARGE + 8, y - 6, PdfContent.GRAS, 11, cents >= 0 ? "Montant à régler" : "Avoir reporté");
+        content.textRight(DROITE - 8, y - 6, PdfContent.GRAS, 11, formatEuros(Math.abs(cents)));
+    }
+
+    // ==================== ATTESTATIONS FISCALES ====================
+
+    /**
+     * Rend les attestations fiscales d'une année : une par famille facturée,
+     * à partir des fichiers de factures des mois de l'année.
+     *
+     * @param year l'année
+     * @param factures les fichiers de factures des mois de l'année
+     * @param dateEmission la date portée sur les attestations
+     * @param directory le dossier des documents (créé si besoin)
+     * @param reporter la progression et l'annulation
+     * @return le bilan du rendu
+     * @throws IOException si un des mois n'est pas entièrement facturé, ou en cas
+     *                     d'erreur de lecture ou d'écriture
+     */
+    public static Bilan renderAttestations(int year, List<Path> factures, LocalDate dateEmission, Path directory,
+                                           TaskExecutor.ProgressReporter reporter) throws IOException {
+        Files.createDirectories(directory);
+        DocumentRenderer renderer = new DocumentRenderer();
+        try {
+            return renderer.attestations(year, factures, dateEmission, directory, reporter);
+        } finally {
+            renderer.deflater.end();
+        }
+    }
+
+    /**
+     * Montant facturé à une famille sur l'année et enfants gardés.
+     */
+    private static final class Cumul {
+        long cents;
+        final NavigableMap<Integer, String> enfants = new TreeMap<>();
+    }
+
+    private Bilan attestations(int year, List<Path> factures, LocalDate dateEmission, Path directory,
+                               TaskExecutor.ProgressReporter reporter) throws IOException {
+        // Un mois incomplet fausserait les montants annuels d'un document fiscal
+        List<String> incomplets = new ArrayList<>();
+        for (Path file : factures) {
+            checkCancelled(reporter);
+            if (!isComplete(file)) {
+                incomplets.add(file.getFileName().toString());
+            }
+        }
+        if (!incomplets.isEmpty()) {
+            throw new IOException("Facturation incomplète (" + String.join(", ", incomplets)
+                    + ") : reprendre la génération des factures de ces mois");
+        }
+
+        // Une entrée par famille : la mémoire ne dépend pas du nombre de lignes lues
+        NavigableMap<Integer, Cumul> familles = new TreeMap<>();
+        for (Path file : factures) {
+            checkCancelled(reporter);
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                in.readLine();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String[] fields = line.split(";", -1);
+                    if (fields.length < 7 || fields[0].equals("FIN")) {
+                        continue;
+                    }
+                    Cumul cumul = familles.computeIfAbsent(Integer.parseInt(fields[1]), k -> new Cumul());
+                    if (fields[3].equals("Total")) {
+                        cumul.cents += Math.max(0, parseCents(fields[6]));
+                    } else if (!fields[2].isEmpty() && fields[3].startsWith("Accueil ")) {
+                        cumul.enfants.put(Integer.parseInt(fields[2]), fields[3].substring("Accueil ".length()));
+                    }
+                }
+            }
+        }
+
+        PdfTemplate template = ModeleAttestation.TEMPLATE;
+        int documents = 0;
+        for (Map.Entry<Integer, Cumul> entry : familles.entrySet()) {
+            if (entry.getValue().cents == 0) {
+                continue;
+            }
+            checkCancelled(reporter);
+            content.reset();
+            drawAttestation(year, entry.getKey(), entry.getValue(), dateEmission);
+            write(template, directory.resolve("Attestation-" + year + "-" + String.format("%04d", entry.getKey()) + ".pdf"));
+            documents++;
+            if (documents % 10 == 0) {
+                reporter.updateProgress(documents * 100 / familles.size(), documents + " attestations");
+            }
+        }
+        reporter.updateProgress(100, documents + " attestations");
+        return new Bilan(directory, documents, bytes);
+    }
+
+    private static PdfTemplate compileAttestation() {
+        return PdfTemplate.compile(Map.of(
+                        "Logo", new PdfTemplate.Image("/images/logo_mami.png", MARGE, 770, 160),
+                        "Signature", new PdfTemplate.Image("/images/signature_st_max.png", 360, 150, 150)),
+                decor -> {
+                    decor.textRight(DROITE, 785, PdfContent.GRAS, 18, "ATTESTATION FISCALE");
+                    decor.text(MARGE, 750, PdfContent.GRAS, 10, "Association MAMI");
+                    decor.text(MARGE, 660, PdfContent.NORMAL, 10,
+                            "Frais de garde des enfants de moins de 6 ans (article 200 quater B du CGI)");
+                    decor.line(MARGE, 650, DROITE, 650, 0.5f, TRAIT);
+                    decor.text(MARGE, 300, PdfContent.NORMAL, 10, "Attestation délivrée pour servir et valoir ce que de droit.");
+                    decor.text(360, 215, PdfContent.NORMAL, 10, "Pour l'Association MAMI,");
+                    footer(decor, "Document à conserver - à joindre à la déclaration de revenus sur demande");
+                });
+    }
+
+    private void drawAttestation(int year, int familyId, Cumul cumul, LocalDate dateEmission) {
+        content.text(MARGE, 700, PdfContent.GRAS, 13, "Année " + year);
+        content.text(MARGE, 683, PdfContent.NORMAL, 10, "Famille n° " + familyId);
+        content.textRight(DROITE, 700, PdfContent.NORMAL, 10,
+                "Attestation n° " + year + "-" + String.format("%04d", familyId));
+
+        float y = 610;
+        content.text(MARGE, y, PdfContent.NORMAL, 11,
+                "L'Association MAMI atteste avoir facturé à la famille n° " + familyId + ", au titre de l'année " + year + ",");
+        y -= 16;
+        content.text(MARGE, y, PdfContent.NORMAL, 11, "la somme de ");
+        content.text(MARGE + PdfContent.width("la somme de ", 11), y, PdfContent.GRAS, 11,
+                formatEuros(cumul.cents) + " pour la garde de :");
+        y -= 24;
+        for (String enfant : cumul.enfants.values()) {
+            content.text(MARGE + 20, y, PdfContent.NORMAL, 11, "- " + enfant);
+            y -= 16;
+        }
+        content.text(360, 235, PdfContent.NORMAL, 10, "Fait le " + DATE.format(dateEmission));
+    }
+
+    // ==================== COMMUN ====================
+
+    private static void footer(PdfContent decor, String text) {
+        decor.line(MARGE, 60, DROITE, 60, 0.5f, COULEUR);
+        decor.text(MARGE, 45, PdfContent.NORMAL, 8, text);
+        decor.textRight(DROITE, 45, PdfContent.NORMAL, 8, "Association MAMI");
+    }
+
+    /**
+     * Écrit le document courant dans son fichier.
+     * Le document est écrit dans un fichier temporaire du même répertoire puis
+     * renommé : une interruption ne laisse jamais de PDF tronqué.
+     */
+    private void write(PdfTemplate template, Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName() + ".", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                template.write(out, content, deflater);
+            }
+            long size = Files.size(temp);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            bytes += size;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static void checkCancelled(TaskExecutor.ProgressReporter reporter) {
+        if (reporter.isCancelled()) {
+            throw new CancellationException("Rendu interrompu");
+        }
+    }
+
+    /**
+     * @return un montant du fichier de factures ("123.45") en centimes
+     */
+    private static long parseCents(String amount) {
+        return Long.parseLong(amount.replace(".", ""));
+    }
+
+    /**
+     * @return un montant au format "1 234,56 €"
+     */
+    static String formatEuros(long cents) {
+        String euros = String.format(Locale.FRENCH, "%,d", Math.abs(cents) / 100)
+                .replace('\u202F', ' ').replace('\u00A0', ' ');
+        return (cents < 0 ? "-" : "") + euros + "," + String.format("%02d", Math.abs(cents) % 100) + " €";
+    }
+
+    /**
+     * Modèle de facture, compilé au premier rendu et partagé ensuite.
+     */
+    private static final class ModeleFacture {
+        static final PdfTemplate TEMPLATE = compileFacture();
+    }
+
+    /**
+     * Modèle d'attestation, compilé au premier rendu et partagé ensuite.
+     */
+    private static final class ModeleAttestation {
+        static final PdfTemplate TEMPLATE = compileAttestation();
+    }
+}
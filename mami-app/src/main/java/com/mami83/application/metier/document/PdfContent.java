@@ -0,0 +1,174 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.document;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Flux de dessin d'une page PDF (opérateurs texte, traits, rectangles).
+ * <p>
+ * Le tampon est réutilisé d'un document à l'autre ({@link #reset()}) : un
+ * rendu en série n'alloue pas de nouveau tampon par page. Le texte utilise
+ * les polices standard Helvetica en codage WinAnsi (accents et symbole euro).
+ * Une instance n'est pas thread-safe.
+ *
+ * @author Association MAMI
+ */
+public final class PdfContent {
+
+    /** Police normale */
+    public static final String NORMAL = "F1";
+
+    /** Police grasse */
+    public static final String GRAS = "F2";
+
+    // Largeurs Helvetica (millièmes de point) des caractères 32 à 126, reprises pour le gras
+    private static final short[] WIDTHS = {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584
+    };
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+    private final CharsetEncoder encoder = WIN_ANSI.newEncoder()
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .onMalformedInput(CodingErrorAction.REPLACE);
+
+    /**
+     * Vide le flux pour dessiner une nouvelle page.
+     */
+    public void reset() {
+        buffer.reset();
+    }
+
+    /**
+     * Écrit du texte, aligné à gauche sur x.
+     *
+     * @param x l'abscisse (points depuis la gauche)
+     * @param y l'ordonnée de la ligne de base (points depuis le bas)
+     * @param font {@link #NORMAL} ou {@link #GRAS}
+     * @param size la taille de la police
+     * @param text le texte
+     * @return ce flux
+     */
+    public PdfContent text(float x, float y, String font, float size, String text) {
+        append("BT /" + font + " " + number(size) + " Tf " + number(x) + " " + number(y) + " Td (");
+        appendText(text);
+        append(") Tj ET\n");
+        return this;
+    }
+
+    /**
+     * Écrit du texte aligné à droite sur x (montants).
+     */
+    public PdfContent textRight(float x, float y, String font, float size, String text) {
+        return text(x - width(text, size), y, font, size, text);
+    }
+
+    /**
+     * Trace un trait.
+     */
+    public PdfContent line(float x1, float y1, float x2, float y2, float lineWidth, Color color) {
+        append(number(lineWidth) + " w " + rgb(color) + " RG " + number(x1) + " " + number(y1) + " m "
+                + number(x2) + " " + number(y2) + " l S\n");
+        return this;
+    }
+
+    /**
+     * Remplit un rectangle.
+     */
+    public PdfContent fillRect(float x, float y, float width, float height, Color color) {
+        append(rgb(color) + " rg " + number(x) + " " + number(y) + " " + number(width) + " "
+                + number(height) + " re f 0 g\n");
+        return this;
+    }
+
+    /**
+     * Dessine une image déclarée dans le modèle.
+     *
+     * @param name le nom de l'image dans les ressources de la page
+     */
+    public PdfContent image(String name, float x, float y, float width, float height) {
+        append("q " + number(width) + " 0 0 " + number(height) + " " + number(x) + " " + number(y)
+                + " cm /" + name + " Do Q\n");
+        return this;
+    }
+
+    /**
+     * @return le contenu du flux
+     */
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Largeur approchée d'un texte en Helvetica.
+     *
+     * @param text le texte
+     * @param size la taille de la police
+     * @return la largeur en points
+     */
+    public static float width(String text, float size) {
+        int total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            // Lettres accentuées et symboles : largeur moyenne
+            total += c >= 32 && c <= 126 ? WIDTHS[c - 32] : 556;
+        }
+        return total * size / 1000f;
+    }
+
+    private void appendText(String text) {
+        encoder.reset();
+        ByteBuffer encoded;
+        try {
+            encoded = encoder.encode(CharBuffer.wrap(text));
+        } catch (CharacterCodingException e) {
+            // Impossible avec REPLACE
+            throw new IllegalStateException(e);
+        }
+        while (encoded.hasRemaining()) {
+            byte b = encoded.get();
+            if (b == '(' || b == ')' || b == '\\') {
+                buffer.write('\\');
+            }
+            buffer.write(b);
+        }
+    }
+
+    private void append(String operators) {
+        buffer.writeBytes(operators.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String rgb(Color color) {
+        return number(color.getRed() / 255f) + " " + number(color.getGreen() / 255f) + " "
+                + number(color.getBlue() / 255f);
+    }
+
+    /**
+     * @return un nombre PDF (point décimal, deux décimales au plus)
+     */
+    static String number(float value) {
+        if (value == Math.rint(value)) {
+            return Integer.toString((int) value);
+        }
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
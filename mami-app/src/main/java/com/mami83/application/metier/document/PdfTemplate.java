@@ -0,0 +1,261 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.document;
+
+import com.mami83.application.util.ResourceImageCache;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+
+/**
+ * Modèle de document PDF d'une page, compilé une fois.
+ * <p>
+ * Tout ce qui ne dépend pas du document est sérialisé à la compilation :
+ * en-tête du fichier, polices, images (décodées et compressées une seule
+ * fois), décor de la page et objet page. Un document ne produit plus que
+ * son flux variable, la table des références et la fin de fichier, écrits
+ * directement dans le flux de sortie.
+ *
+ * @author Association MAMI
+ */
+public final class PdfTemplate {
+
+    /** Largeur d'une page A4 (points) */
+    public static final float LARGEUR = 595;
+
+    /** Hauteur d'une page A4 (points) */
+    public static final float HAUTEUR = 842;
+
+    private final byte[] prefix;
+    private final long[] offsets;
+    private final int contentObject;
+    private final Set<String> images;
+
+    private PdfTemplate(byte[] prefix, long[] offsets, Set<String> images) {
+        this.prefix = prefix;
+        this.offsets = offsets;
+        this.contentObject = offsets.length + 1;
+        this.images = images;
+    }
+
+    /**
+     * Image du décor, dessinée à la largeur demandée en conservant ses proportions.
+     *
+     * @param resource le chemin de la ressource (ex : "/images/logo_mami.png")
+     * @param x l'abscisse du coin inférieur gauche (points)
+     * @param y l'ordonnée du coin inférieur gauche (points)
+     * @param width la largeur (points)
+     */
+    public record Image(String resource, float x, float y, float width) {
+    }
+
+    /**
+     * Compile un modèle.
+     *
+     * @param images les images du décor, par nom
+     * @param decor le reste du dessin commun à tous les documents
+     * @return le modèle compilé
+     */
+    public static PdfTemplate compile(Map<String, Image> images, Consumer<PdfContent> decor) {
+        Builder builder = new Builder();
+        builder.add("<< /Type /Catalog /Pages 2 0 R >>");
+        int pagesIndex = builder.reserve();
+        builder.add("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        builder.add("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+
+        StringBuilder xobjects = new StringBuilder();
+        PdfContent content = new PdfContent();
+        Set<String> loaded = new LinkedHashSet<>();
+        for (Map.Entry<String, Image> entry : images.entrySet()) {
+            Image placement = entry.getValue();
+            BufferedImage image = ResourceImageCache.getDefault().getImage(placement.resource());
+            if (image == null) {
+                System.err.println("PdfTemplate: image absente " + placement.resource());
+                continue;
+            }
+            xobjects.append(" /").append(entry.getKey()).append(' ').append(builder.addImage(image)).append(" 0 R");
+            content.image(entry.getKey(), placement.x(), placement.y(), placement.width(),
+                    placement.width() * image.getHeight() / image.getWidth());
+            loaded.add(entry.getKey());
+        }
+        decor.accept(content);
+        int decorObject = builder.addStream(content.toByteArray());
+
+        int pageObject = builder.size() + 1;
+        int contentObject = pageObject + 1;
+        builder.set(pagesIndex, "<< /Type /Pages /Kids [" + pageObject + " 0 R] /Count 1 >>");
+        builder.add("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + PdfContent.number(LARGEUR) + " "
+                + PdfContent.number(HAUTEUR) + "] /Resources << /Font << /F1 3 0 R /F2 4 0 R >>"
+                + " /XObject <<" + xobjects + " >> >> /Contents [" + decorObject + " 0 R "
+                + contentObject + " 0 R] >>");
+        return builder.build(Set.copyOf(loaded));
+    }
+
+    /**
+     * @param name le nom de l'image
+     * @return true si l'image a pu être chargée
+     */
+    public boolean hasImage(String name) {
+        return images.contains(name);
+    }
+
+    /**
+     * Écrit un document complet : le modèle puis le flux variable.
+     *
+     * @param out la sortie (fichier)
+     * @param content le contenu propre au document
+     * @param deflater le compresseur, réutilisé d'un document à l'autre
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void write(OutputStream out, PdfContent content, Deflater deflater) throws IOException {
+        byte[] data = compress(content.toByteArray(), deflater);
+        out.write(prefix);
+
+        long position = prefix.length;
+        byte[] header = ascii(contentObject + " 0 obj\n<< /Length " + data.length + " /Filter /FlateDecode >>\nstream\n");
+        byte[] footer = ascii("\nendstream\nendobj\n");
+        out.write(header);
+        out.write(data);
+        out.write(footer);
+        long xref = position + header.length + data.length + footer.length;
+
+        StringBuilder trailer = new StringBuilder(32 + 20 * (contentObject + 1));
+        trailer.append("xref\n0 ").append(contentObject + 1).append("\n0000000000 65535 f \n");
+        for (long offset : offsets) {
+            trailer.append(String.format("%010d 00000 n \n", offset));
+        }
+        trailer.append(String.format("%010d 00000 n \n", position));
+        trailer.append("trailer\n<< /Size ").append(contentObject + 1).append(" /Root 1 0 R >>\nstartxref\n")
+                .append(xref).append("\n%%EOF\n");
+        out.write(ascii(trailer.toString()));
+    }
+
+    /**
+     * @return la taille du modèle sérialisé (octets)
+     */
+    public int getTemplateSize() {
+        return prefix.length;
+    }
+
+    static byte[] compress(byte[] data, Deflater deflater) {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Assemble les objets du modèle (numérotés à partir de 1).
+     */
+    private static final class Builder {
+
+        private final List<byte[]> dictionaries = new ArrayList<>();
+        private final List<byte[]> streams = new ArrayList<>();
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+        int size() {
+            return dictionaries.size();
+        }
+
+        int add(String dictionary) {
+            dictionaries.add(ascii(dictionary));
+            streams.add(null);
+            return dictionaries.size();
+        }
+
+        int reserve() {
+            return add("") - 1;
+        }
+
+        void set(int index, String dictionary) {
+            dictionaries.set(index, ascii(dictionary));
+        }
+
+        int addStream(byte[] data) {
+            return addStream("", data);
+        }
+
+        private int addStream(String entries, byte[] data) {
+            byte[] compressed = compress(data, deflater);
+            int number = add("<< " + entries + "/Length " + compressed.length + " /Filter /FlateDecode >>");
+            streams.set(number - 1, compressed);
+            return number;
+        }
+
+        /**
+         * Ajoute une image RGB, avec son masque de transparence s'il y en a un.
+         */
+        int addImage(BufferedImage image) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            boolean alpha = image.getColorModel().hasAlpha();
+            byte[] rgb = new byte[width * height * 3];
+            byte[] mask = alpha ? new byte[width * height] : null;
+            int[] row = new int[width];
+            for (int y = 0, i = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+                for (int x = 0; x < width; x++, i++) {
+                    int argb = row[x];
+                    rgb[i * 3] = (byte) (argb >> 16);
+                    rgb[i * 3 + 1] = (byte) (argb >> 8);
+                    rgb[i * 3 + 2] = (byte) argb;
+                    if (mask != null) {
+                        mask[i] = (byte) (argb >>> 24);
+                    }
+                }
+            }
+
+            String common = "/Type /XObject /Subtype /Image /Width " + width + " /Height " + height
+                    + " /BitsPerComponent 8 ";
+            String smask = "";
+            if (mask != null) {
+                smask = "/SMask " + addStream(common + "/ColorSpace /DeviceGray ", mask) + " 0 R ";
+            }
+            return addStream(common + "/ColorSpace /DeviceRGB " + smask, rgb);
+        }
+
+        PdfTemplate build(Set<String> images) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            // Commentaire binaire : le fichier est traité comme binaire par les outils de transfert
+            out.writeBytes(new byte[]{'%', 'P', 'D', 'F', '-', '1', '.', '4', '\n', '%', (byte) 0xE2,
+                    (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'});
+            long[] offsets = new long[dictionaries.size()];
+            for (int i = 0; i < dictionaries.size(); i++) {
+                offsets[i] = out.size();
+                out.writeBytes(ascii((i + 1) + " 0 obj\n"));
+                out.writeBytes(dictionaries.get(i));
+                byte[] stream = streams.get(i);
+                if (stream != null) {
+                    out.writeBytes(ascii("\nstream\n"));
+                    out.writeBytes(stream);
+                    out.writeBytes(ascii("\nendstream"));
+                }
+                out.writeBytes(ascii("\nendobj\n"));
+            }
+            deflater.end();
+            return new PdfTemplate(out.toByteArray(), offsets, images);
+        }
+    }
+}
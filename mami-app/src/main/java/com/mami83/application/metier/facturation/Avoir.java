@@ -0,0 +1,26 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.facturation;
+
+import java.time.YearMonth;
+
+/**
+ * Avoir accordé à une famille, déduit de sa facture du mois.
+ *
+ * @param familyId l'identifiant de la famille
+ * @param month le mois de facturation sur lequel l'avoir est déduit
+ * @param motif le motif, repris sur la facture
+ * @param amountCents le montant (centimes, positif)
+ * @author Association MAMI
+ */
+public record Avoir(int familyId, YearMonth month, String motif, long amountCents) {
+
+    public Avoir {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Montant d'avoir invalide pour la famille " + familyId);
+        }
+    }
+}
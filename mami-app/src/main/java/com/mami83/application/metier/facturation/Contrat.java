@@ -0,0 +1,57 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.facturation;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Contrat d'accueil d'un enfant : jours et horaires réservés, tarif horaire.
+ *
+ * @param childId l'identifiant de l'enfant
+ * @param familyId l'identifiant de la famille facturée
+ * @param start le premier jour du contrat
+ * @param end le dernier jour du contrat (inclus)
+ * @param arrival la minute d'arrivée prévue (depuis minuit)
+ * @param departure la minute de départ prévue (depuis minuit)
+ * @param days les jours de la semaine réservés
+ * @param hourlyRateCents le tarif horaire (centimes)
+ * @author Association MAMI
+ */
+public record Contrat(int childId, int familyId, LocalDate start, LocalDate end,
+                      int arrival, int departure, Set<DayOfWeek> days, long hourlyRateCents) {
+
+    public Contrat {
+        if (end.isBefore(start) || departure <= arrival) {
+            throw new IllegalArgumentException("Contrat invalide pour l'enfant " + childId);
+        }
+        days = Set.copyOf(days);
+    }
+
+    /**
+     * @param day le jour
+     * @return true si le contrat couvre ce jour (dates de validité)
+     */
+    public boolean covers(LocalDate day) {
+        return !day.isBefore(start) && !day.isAfter(end);
+    }
+
+    /**
+     * @param day le jour
+     * @return true si l'accueil est réservé ce jour
+     */
+    public boolean isReserved(LocalDate day) {
+        return covers(day) && days.contains(day.getDayOfWeek());
+    }
+
+    /**
+     * @return la durée réservée par jour (minutes)
+     */
+    public int reservedMinutes() {
+        return departure - arrival;
+    }
+}
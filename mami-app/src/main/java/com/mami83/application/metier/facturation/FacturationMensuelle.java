@@ -0,0 +1,368 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.facturation;
+
+import com.mami83.application.util.TaskExecutor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Génération des factures du mois pour toutes les familles.
+ * <p>
+ * Les familles sont découpées en lots calculés en parallèle sur un pool
+ * fork-join (un thread par cœur). Les factures sont écrites dans un seul
+ * fichier CSV, lot par lot et dans l'ordre des familles, au fur et à mesure
+ * que les lots sont prêts : le fichier est identique d'une génération à
+ * l'autre pour les mêmes données.
+ * <p>
+ * Chaque facture se termine par sa ligne « Total » et le fichier complet par
+ * une ligne « FIN ». Une génération interrompue (annulation, arrêt de
+ * l'application) reprend après la dernière facture complète : la facture
+ * partiellement écrite est tronquée et les familles suivantes sont calculées.
+ *
+ * @author Association MAMI
+ */
+public class FacturationMensuelle {
+
+    /** Nombre de familles par lot de calcul */
+    public static final int FAMILLES_PAR_LOT = 8;
+
+    /** En-tête du fichier de factures */
+    public static final String ENTETE = "facture;famille;enfant;libelle;heures;tarif_horaire;montant";
+
+    private static final String TOTAL = "Total";
+    private static final String FIN = "FIN";
+
+    private final HeuresFacturables heures;
+    private final Collection<Contrat> contrats;
+    private final Collection<Avoir> avoirs;
+    private final IntFunction<String> childNames;
+    private final int parallelism;
+
+    /**
+     * @param heures le calcul des heures facturées
+     * @param contrats les contrats de tous les enfants
+     * @param avoirs les avoirs de toutes les familles
+     * @param childNames le nom de chaque enfant, par identifiant
+     */
+    public FacturationMensuelle(HeuresFacturables heures, Collection<Contrat> contrats,
+                                Collection<Avoir> avoirs, IntFunction<String> childNames) {
+        this(heures, contrats, avoirs, childNames, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism le nombre de threads de calcul
+     */
+    FacturationMensuelle(HeuresFacturables heures, Collection<Contrat> contrats,
+                         Collection<Avoir> avoirs, IntFunction<String> childNames, int parallelism) {
+        this.heures = heures;
+        this.contrats = contrats;
+        this.avoirs = avoirs;
+        this.childNames = childNames;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Génère (ou termine) les factures du mois.
+     *
+     * @param month le mois à facturer
+     * @param file le fichier de factures
+     * @param reprendre true pour reprendre un fichier existant, false pour tout regénérer
+     * @param reporter la progression et l'annulation
+     * @return le bilan de la génération
+     * @throws IOException en cas d'erreur d'écriture
+     * @throws InterruptedException si la génération est interrompue
+     */
+    public Resultat generate(YearMonth month, Path file, boolean reprendre, TaskExecutor.ProgressReporter reporter)
+            throws IOException, InterruptedException {
+        reporter.updateProgress(0, "Calcul des heures");
+        heures.update(month);
+        Map<Integer, Long> minutes = heures.getMonth(month);
+        NavigableMap<Integer, FamilleData> familles = prepare(month);
+
+        Reprise reprise = reprendre && Files.exists(file) ? resume(file) : Reprise.NOUVEAU;
+        if (reprise.termine()) {
+            reporter.updateProgress(100, "Factures déjà générées");
+            return new Resultat(file, 0, reprise.factures(), reprise.totalCents());
+        }
+
+        List<List<Integer>> lots = partition(familles.tailMap(reprise.derniereFamille(), false).keySet());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Deque<Future<List<Facture>>> enCours = new ArrayDeque<>();
+        int factures = 0;
+        long totalCents = reprise.totalCents();
+        try (BufferedWriter out = open(file, reprise)) {
+            int soumis = 0;
+            for (int ecrits = 0; ecrits < lots.size(); ecrits++) {
+                // Fenêtre bornée : le calcul avance pendant l'écriture sans tout garder en mémoire
+                while (soumis < lots.size() && enCours.size() < parallelism * 2) {
+                    List<Integer> lot = lots.get(soumis++);
+                    enCours.add(pool.submit(() -> invoice(month, lot, familles, minutes)));
+                }
+                if (reporter.isCancelled()) {
+                    throw new CancellationException("Facturation interrompue");
+                }
+
+                for (Facture facture : join(enCours.removeFirst())) {
+                    write(out, facture);
+                    factures++;
+                    totalCents += facture.totalCents();
+                }
+                // Lot écrit en entier : point de reprise
+                out.flush();
+                reporter.updateProgress((ecrits + 1) * 100 / lots.size(),
+                        (reprise.factures() + factures) + " factures");
+            }
+            out.write(FIN + ";" + (reprise.factures() + factures) + ";;;;;" + formatCents(totalCents) + "\n");
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Resultat(file, factures, reprise.factures(), totalCents);
+    }
+
+    // ==================== CALCUL ====================
+
+    /**
+     * Données d'une famille pour le mois, immuables une fois préparées.
+     */
+    private record FamilleData(List<Contrat> contrats, List<Avoir> avoirs) {
+    }
+
+    /**
+     * Regroupe par famille le contrat de chaque enfant pour le mois et les avoirs.
+     */
+    private NavigableMap<Integer, FamilleData> prepare(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+        Map<Integer, Contrat> parEnfant = new HashMap<>();
+        for (Contrat contrat : contrats) {
+            if (contrat.start().isAfter(last) || contrat.end().isBefore(first)) {
+                continue;
+            }
+            // Plusieurs contrats dans le mois : le plus récent fixe le tarif
+            parEnfant.merge(contrat.childId(), contrat,
+                    (a, b) -> b.start().isAfter(a.start()) ? b : a);
+        }
+
+        NavigableMap<Integer, FamilleData> familles = new TreeMap<>();
+        new TreeMap<>(parEnfant).values().forEach(contrat -> familles
+                .computeIfAbsent(contrat.familyId(), k -> new FamilleData(new ArrayList<>(), new ArrayList<>()))
+                .contrats().add(contrat));
+        for (Avoir avoir : avoirs) {
+            if (avoir.month().equals(month)) {
+                familles.computeIfAbsent(avoir.familyId(), k -> new FamilleData(new ArrayList<>(), new ArrayList<>()))
+                        .avoirs().add(avoir);
+            }
+        }
+        return familles;
+    }
+
+    private static List<List<Integer>> partition(Collection<Integer> familyIds) {
+        List<List<Integer>> lots = new ArrayList<>();
+        List<Integer> lot = new ArrayList<>(FAMILLES_PAR_LOT);
+        for (int familyId : familyIds) {
+            lot.add(familyId);
+            if (lot.size() == FAMILLES_PAR_LOT) {
+                lots.add(lot);
+                lot = new ArrayList<>(FAMILLES_PAR_LOT);
+            }
+        }
+        if (!lot.isEmpty()) {
+            lots.add(lot);
+        }
+        return lots;
+    }
+
+    /**
+     * Calcule les factures d'un lot de familles (thread du pool).
+     */
+    private List<Facture> invoice(YearMonth month, List<Integer> lot, Map<Integer, FamilleData> familles,
+                                  Map<Integer, Long> minutes) {
+        List<Facture> factures = new ArrayList<>(lot.size());
+        for (int familyId : lot) {
+            FamilleData famille = familles.get(familyId);
+            List<Facture.Ligne> lignes = new ArrayList<>();
+            for (Contrat contrat : famille.contrats()) {
+                long billed = minutes.getOrDefault(contrat.childId(), 0L);
+                if (billed > 0) {
+                    long amount = (billed * contrat.hourlyRateCents() + 30) / 60;
+                    lignes.add(new Facture.Ligne(contrat.childId(), "Accueil " + childNames.apply(contrat.childId()),
+                            billed, contrat.hourlyRateCents(), amount));
+                }
+            }
+            for (Avoir avoir : famille.avoirs()) {
+                lignes.add(new Facture.Ligne(0, "Avoir - " + avoir.motif(), 0, 0, -avoir.amountCents()));
+            }
+            if (!lignes.isEmpty()) {
+                factures.add(new Facture(Facture.numero(familyId, month), familyId, month, lignes));
+            }
+        }
+        return factures;
+    }
+
+    private static <T> T join(Future<T> future) throws InterruptedException, IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur de calcul des factures", e.getCause());
+        }
+    }
+
+    // ==================== FICHIER ====================
+
+    /**
+     * État d'un fichier existant.
+     *
+     * @param derniereFamille la famille de la dernière facture complète
+     * @param factures le nombre de factures complètes
+     * @param totalCents le total des factures complètes
+     * @param longueur la taille du fichier jusqu'à la dernière facture complète (octets)
+     * @param termine true si le fichier est complet
+     */
+    private record Reprise(int derniereFamille, int factures, long totalCents, long longueur, boolean termine) {
+        static final Reprise NOUVEAU = new Reprise(Integer.MIN_VALUE, 0, 0, 0, false);
+    }
+
+    /**
+     * Lit un fichier existant jusqu'à sa dernière facture complète.
+     * Seules comptent les lignes terminées par un saut de ligne et lisibles :
+     * la suite (ligne coupée par une interruption, montant illisible) est tronquée.
+     */
+    private static Reprise resume(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        int derniereFamille = Integer.MIN_VALUE;
+        int factures = 0;
+        long totalCents = 0;
+        long longueur = 0;
+        boolean entete = true;
+        for (int from = 0, end; (end = indexOf(data, (byte) '\n', from)) >= 0; from = end + 1) {
+            String line = new String(data, from, end - from, StandardCharsets.UTF_8);
+            String[] fields = line.split(";", -1);
+            if (entete) {
+                if (!line.equals(ENTETE)) {
+                    break;
+                }
+                entete = false;
+                longueur = end + 1;
+            } else if (fields[0].equals(FIN)) {
+                if (fields.length == 7 && parseInt(fields[1]) == factures && parseCents(fields[6]) == totalCents) {
+                    return new Reprise(derniereFamille, factures, totalCents, end + 1, true);
+                }
+                break;
+            } else if (fields.length == 7 && fields[3].equals(TOTAL)) {
+                int famille = parseInt(fields[1]);
+                long montant = parseCents(fields[6]);
+                if (famille == Integer.MIN_VALUE || montant == Long.MIN_VALUE || famille <= derniereFamille) {
+                    break;
+                }
+                derniereFamille = famille;
+                factures++;
+                totalCents += montant;
+                longueur = end + 1;
+            }
+        }
+        return new Reprise(derniereFamille, factures, totalCents, longueur, false);
+    }
+
+    private static int indexOf(byte[] data, byte value, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return l'entier lu, ou Integer.MIN_VALUE s'il est illisible
+     */
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Ouvre le fichier en écriture : nouveau, ou tronqué après la dernière facture complète.
+     */
+    private static BufferedWriter open(Path file, Reprise reprise) throws IOException {
+        if (reprise.longueur() == 0) {
+            BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            out.write(ENTETE + "\n");
+            return out;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(reprise.longueur());
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static void write(BufferedWriter out, Facture facture) throws IOException {
+        String prefix = facture.numero() + ";" + facture.familyId() + ";";
+        for (Facture.Ligne ligne : facture.lignes()) {
+            out.write(prefix + (ligne.childId() != 0 ? ligne.childId() : "") + ";"
+                    + ligne.libelle().replace(';', ',') + ";"
+                    + (ligne.minutes() != 0 ? formatCents(ligne.minutes() * 100 / 60) : "") + ";"
+                    + (ligne.unitPriceCents() != 0 ? formatCents(ligne.unitPriceCents()) : "") + ";"
+                    + formatCents(ligne.amountCents()) + "\n");
+        }
+        out.write(prefix + ";" + TOTAL + ";;;" + formatCents(facture.totalCents()) + "\n");
+    }
+
+    /**
+     * @return un montant en centimes au format "123.45"
+     */
+    static String formatCents(long cents) {
+        return (cents < 0 ? "-" : "") + Math.abs(cents) / 100 + "." + String.format("%02d", Math.abs(cents) % 100);
+    }
+
+    /**
+     * @return le montant lu en centimes, ou Long.MIN_VALUE s'il est illisible
+     */
+    private static long parseCents(String amount) {
+        try {
+            return new BigDecimal(amount).movePointRight(2).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Bilan d'une génération.
+     *
+     * @param file le fichier de factures
+     * @param factures le nombre de factures générées par cette exécution
+     * @param reprises le nombre de factures reprises d'une exécution précédente
+     * @param totalCents le total de toutes les factures du fichier (centimes)
+     */
+    public record Resultat(Path file, int factures, int reprises, long totalCents) {
+    }
+}
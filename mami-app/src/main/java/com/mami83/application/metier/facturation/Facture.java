@@ -0,0 +1,57 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.facturation;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Facture mensuelle d'une famille.
+ *
+ * @param numero le numéro de facture (mois et famille : identique à chaque génération)
+ * @param familyId l'identifiant de la famille
+ * @param month le mois facturé
+ * @param lignes les lignes : heures par enfant, puis avoirs
+ * @author Association MAMI
+ */
+public record Facture(String numero, int familyId, YearMonth month, List<Ligne> lignes) {
+
+    public Facture {
+        lignes = List.copyOf(lignes);
+    }
+
+    /**
+     * @param familyId l'identifiant de la famille
+     * @param month le mois facturé
+     * @return le numéro de la facture
+     */
+    public static String numero(int familyId, YearMonth month) {
+        return String.format("%d%02d-%04d", month.getYear(), month.getMonthValue(), familyId);
+    }
+
+    /**
+     * @return le montant total de la facture (centimes, négatif si les avoirs dépassent)
+     */
+    public long totalCents() {
+        long total = 0;
+        for (Ligne ligne : lignes) {
+            total += ligne.amountCents();
+        }
+        return total;
+    }
+
+    /**
+     * Ligne de facture.
+     *
+     * @param childId l'enfant concerné, ou 0 pour un avoir
+     * @param libelle le libellé
+     * @param minutes la quantité facturée (minutes), 0 pour un avoir
+     * @param unitPriceCents le tarif horaire (centimes), 0 pour un avoir
+     * @param amountCents le montant (centimes, négatif pour un avoir)
+     */
+    public record Ligne(int childId, String libelle, long minutes, long unitPriceCents, long amountCents) {
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.facturation;
+
+import com.mami83.application.metier.pointage.PointageStore;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calcul incrémental des heures facturées par enfant et par mois
+ * (écran « Liste des heures »).
+ * <p>
+ * Un mois est calculé entièrement la première fois qu'il est demandé. Ensuite,
+ * chaque modification de pointage (ou de contrat) marque seulement la
+ * journée-enfant concernée : la mise à jour suivante ne recalcule que ces
+ * journées et corrige le total mensuel de l'enfant par différence.
+ * <p>
+ * Règle de facturation : un jour réservé est facturé au contrat, plus les
+ * dépassements hors des horaires réservés, arrondis à la demi-heure
+ * supérieure. Un jour non réservé est facturé au temps de présence arrondi.
+ * Une présence en cours est comptée jusqu'au départ prévu au contrat.
+ *
+ * @author Association MAMI
+ */
+public class HeuresFacturables implements PointageStore.Listener {
+
+    /** Arrondi des dépassements et de l'accueil occasionnel (minutes) */
+    public static final int ARRONDI_MINUTES = 30;
+
+    private final PointageStore pointages;
+    private final Map<Integer, List<Contrat>> contratsParEnfant = new HashMap<>();
+
+    // Minutes facturées par journée-enfant et par mois-enfant (mois calculés uniquement)
+    private final Map<Long, Integer> minutesJour = new HashMap<>();
+    private final Map<Long, Long> minutesMois = new HashMap<>();
+    private final Set<YearMonth> moisCalcules = new HashSet<>();
+
+    // Journées-enfant modifiées depuis la dernière mise à jour
+    private final Set<Long> aRecalculer = new LinkedHashSet<>();
+
+    private final AtomicLong recomputedCount = new AtomicLong();
+
+    /**
+     * Crée le calcul et s'abonne aux modifications de pointage.
+     *
+     * @param pointages les pointages
+     * @param contrats les contrats de tous les enfants
+     */
+    public HeuresFacturables(PointageStore pointages, Collection<Contrat> contrats) {
+        this.pointages = pointages;
+        for (Contrat contrat : contrats) {
+            contratsParEnfant.computeIfAbsent(contrat.childId(), k -> new ArrayList<>()).add(contrat);
+        }
+        pointages.addListener(this);
+    }
+
+    /**
+     * Se désabonne des pointages.
+     */
+    public void close() {
+        pointages.removeListener(this);
+    }
+
+    /**
+     * @return les pointages utilisés
+     */
+    public PointageStore getPointages() {
+        return pointages;
+    }
+
+    // ==================== MODIFICATIONS ====================
+
+    /**
+     * Marque la journée-enfant modifiée (thread de la saisie).
+     */
+    @Override
+    public synchronized void pointageChanged(int childId, LocalDate day) {
+        if (moisCalcules.contains(YearMonth.from(day))) {
+            aRecalculer.add(dayKey(childId, day));
+        }
+    }
+
+    /**
+     * Remplace les contrats d'un enfant : ses journées des mois déjà
+     * calculés seront recalculées à la prochaine mise à jour.
+     *
+     * @param childId l'identifiant de l'enfant
+     * @param contrats les nouveaux contrats de l'enfant
+     */
+    public synchronized void replaceContracts(int childId, Collection<Contrat> contrats) {
+        contratsParEnfant.put(childId, new ArrayList<>(contrats));
+        for (YearMonth mois : moisCalcules) {
+            for (int d = 1; d <= mois.lengthOfMonth(); d++) {
+                aRecalculer.add(dayKey(childId, mois.atDay(d)));
+            }
+        }
+    }
+
+    // ==================== CALCUL ====================
+
+    /**
+     * Met à jour les heures : calcule le mois s'il ne l'a jamais été, puis
+     * recalcule les journées-enfant modifiées depuis la dernière mise à jour.
+     *
+     * @param month le mois à consulter
+     * @return le nombre de journées-enfant recalculées
+     */
+    public synchronized int update(YearMonth month) {
+        int count = 0;
+        if (moisCalcules.add(month)) {
+            for (int childId : pointages.getChildren()) {
+                for (int d = 1; d <= month.lengthOfMonth(); d++) {
+                    recompute(childId, month.atDay(d));
+                    count++;
+                }
+            }
+            // Les modifications de ce mois sont incluses dans le calcul complet
+            aRecalculer.removeIf(key -> YearMonth.from(dayOf(key)).equals(month));
+        }
+
+        for (Iterator<Long> it = aRecalculer.iterator(); it.hasNext(); ) {
+            long key = it.next();
+            it.remove();
+            recompute(childOf(key), dayOf(key));
+            count++;
+        }
+        recomputedCount.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Recalcule une journée-enfant et corrige le total mensuel par différence.
+     */
+    private void recompute(int childId, LocalDate day) {
+        int minutes = billedMinutes(childId, day);
+        Integer previous = minutes > 0
+                ? minutesJour.put(dayKey(childId, day), minutes)
+                : minutesJour.remove(dayKey(childId, day));
+        int delta = minutes - (previous != null ? previous : 0);
+        if (delta != 0) {
+            minutesMois.merge(monthKey(childId, YearMonth.from(day)), (long) delta, Long::sum);
+        }
+    }
+
+    /**
+     * Minutes facturées pour une journée-enfant.
+     *
+     * @param childId l'identifiant de l'enfant
+     * @param day le jour
+     * @return les minutes facturées
+     */
+    synchronized int billedMinutes(int childId, LocalDate day) {
+        Contrat contrat = findContract(childId, day);
+        boolean reserved = contrat != null && contrat.isReserved(day);
+        int reservedStart = reserved ? contrat.arrival() : 0;
+        int reservedEnd = reserved ? contrat.departure() : 0;
+        int defaultEnd = contrat != null ? contrat.departure() : -1;
+
+        int[] minutes = new int[1];
+        pointages.forEachPresence(childId, day, (id, arrival, departure) -> {
+            int end = departure != PointageStore.EN_COURS ? departure : Math.max(arrival, defaultEnd);
+            int presence = end - arrival;
+            if (reserved) {
+                // Seule la présence hors des horaires réservés est facturée en plus
+                int inside = Math.max(0, Math.min(end, reservedEnd) - Math.max(arrival, reservedStart));
+                presence -= inside;
+            }
+            minutes[0] += presence;
+        });
+
+        int extra = roundUp(minutes[0]);
+        return reserved ? contrat.reservedMinutes() + extra : extra;
+    }
+
+    private Contrat findContract(int childId, LocalDate day) {
+        List<Contrat> contrats = contratsParEnfant.get(childId);
+        if (contrats != null) {
+            for (Contrat contrat : contrats) {
+                if (contrat.covers(day)) {
+                    return contrat;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int roundUp(int minutes) {
+        return (minutes + ARRONDI_MINUTES - 1) / ARRONDI_MINUTES * ARRONDI_MINUTES;
+    }
+
+    // ==================== RÉSULTATS ====================
+
+    /**
+     * @param childId l'identifiant de l'enfant
+     * @param month le mois (calculé par {@link #update(YearMonth)})
+     * @return les minutes facturées à l'enfant pour le mois
+     */
+    public synchronized long getMonthlyMinutes(int childId, YearMonth month) {
+        return minutesMois.getOrDefault(monthKey(childId, month), 0L);
+    }
+
+    /**
+     * @param month le mois (calculé par {@link #update(YearMonth)})
+     * @return les minutes facturées par enfant, triées par identifiant
+     */
+    public synchronized Map<Integer, Long> getMonth(YearMonth month) {
+        Map<Integer, Long> result = new TreeMap<>();
+        for (int childId : pointages.getChildren()) {
+            result.put(childId, minutesMois.getOrDefault(monthKey(childId, month), 0L));
+        }
+        return result;
+    }
+
+    /**
+     * @param childId l'identifiant de l'enfant
+     * @param day le jour
+     * @return le contrat de l'enfant ce jour, ou null
+     */
+    public synchronized Contrat getContract(int childId, LocalDate day) {
+        return findContract(childId, day);
+    }
+
+    /**
+     * @return le nombre total de journées-enfant recalculées
+     */
+    public long getRecomputedCount() {
+        return recomputedCount.get();
+    }
+
+    // ==================== CLÉS ====================
+
+    private static long dayKey(int childId, LocalDate day) {
+        return ((long) childId << 32) | (day.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static long monthKey(int childId, YearMonth month) {
+        return ((long) childId << 32) | (month.getYear() * 12L + month.getMonthValue() - 1);
+    }
+
+    private static int childOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static LocalDate dayOf(long key) {
+        return LocalDate.ofEpochDay((int) key);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "HeuresFacturables[mois=" + moisCalcules.size() + ", journées=" + minutesJour.size()
+                + ", à recalculer=" + aRecalculer.size() + ", recalculées=" + getRecomputedCount() + "]";
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.occupation;
+
+import com.mami83.application.metier.facturation.Contrat;
+import com.mami83.application.metier.pointage.PointageStore;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Taux d'occupation de la crèche (état « Taux d'occupation ») : heures
+ * réservées au contrat et heures réalisées, rapportées à la capacité
+ * d'accueil, par créneau d'une demi-heure, jour, mois ou année.
+ * <p>
+ * Les minutes réservées et réalisées sont comptées une fois par jour et par
+ * créneau, puis cumulées (sommes préfixes) par jour et par créneau : le taux
+ * d'une période quelconque, globale ou pour un créneau, s'obtient par deux
+ * lectures sans reparcourir les pointages.
+ * <p>
+ * Une correction de pointage marque seulement le jour concerné ;
+ * {@link #update()} recompte les jours marqués et recalcule les cumuls à
+ * partir du premier d'entre eux. Le jour courant est recompté à chaque mise
+ * à jour (présences en cours comptées jusqu'à l'heure actuelle).
+ *
+ * @author Association MAMI
+ */
+public class TauxOccupation implements PointageStore.Listener {
+
+    /** Heure d'ouverture (minutes depuis minuit) */
+    public static final int OUVERTURE = 7 * 60;
+
+    /** Heure de fermeture (minutes depuis minuit) */
+    public static final int FERMETURE = 19 * 60;
+
+    /** Durée d'un créneau (minutes) */
+    public static final int CRENEAU = 30;
+
+    /** Nombre de créneaux par jour */
+    public static final int CRENEAUX = (FERMETURE - OUVERTURE) / CRENEAU;
+
+    private final PointageStore pointages;
+    private final Collection<Contrat> contrats;
+    private final int places;
+    private final LocalDate origin;
+    private final int days;
+
+    // Minutes par jour et par créneau (index jour * CRENEAUX + créneau)
+    private final int[] reserve;
+    private final int[] realise;
+
+    // Cumuls par créneau : somme des jours [0, d[ à l'index créneau * (days + 1) + d
+    private final long[] cumulReserveCreneau;
+    private final long[] cumulRealiseCreneau;
+
+    // Cumuls par jour (tous créneaux) et jours d'ouverture
+    private final long[] cumulReserve;
+    private final long[] cumulRealise;
+    private final int[] cumulOuverture;
+
+    // Jours à recompter (tous au départ)
+    private final BitSet aRecompter = new BitSet();
+    private boolean reserveCalcule = false;
+
+    /**
+     * Crée le calcul (vide) et s'abonne aux modifications de pointage.
+     * Les compteurs sont remplis par le premier {@link #update()}.
+     *
+     * @param pointages les pointages
+     * @param contrats les contrats de tous les enfants
+     * @param places la capacité d'accueil (nombre de places agréées)
+     * @param fin le dernier jour couvert (prévisions comprises)
+     */
+    public TauxOccupation(PointageStore pointages, Collection<Contrat> contrats, int places, LocalDate fin) {
+        if (places <= 0 || fin.isBefore(pointages.getOrigin())) {
+            throw new IllegalArgumentException("Paramètres du taux d'occupation invalides");
+        }
+        this.pointages = pointages;
+        this.contrats = contrats;
+        this.places = places;
+        this.origin = pointages.getOrigin();
+        this.days = (int) (fin.toEpochDay() - origin.toEpochDay()) + 1;
+
+        reserve = new int[days * CRENEAUX];
+        realise = new int[days * CRENEAUX];
+        cumulReserveCreneau = new long[CRENEAUX * (days + 1)];
+        cumulRealiseCreneau = new long[CRENEAUX * (days + 1)];
+        cumulReserve = new long[days + 1];
+        cumulRealise = new long[days + 1];
+        cumulOuverture = new int[days + 1];
+        aRecompter.set(0, days);
+        pointages.addListener(this);
+    }
+
+    /**
+     * Se désabonne des pointages.
+     */
+    public void close() {
+        pointages.removeListener(this);
+    }
+
+    /**
+     * @return les pointages utilisés
+     */
+    public PointageStore getPointages() {
+        return pointages;
+    }
+
+    @Override
+    public synchronized void pointageChanged(int childId, LocalDate day) {
+        int index = dayIndex(day);
+        if (index >= 0 && index < days) {
+            aRecompter.set(index);
+        }
+    }
+
+    // ==================== CALCUL ====================
+
+    /**
+     * Recompte les jours modifiés et le jour courant, puis met à jour les cumuls.
+     *
+     * @return le nombre de jours recomptés
+     */
+    public synchronized int update() {
+        if (!reserveCalcule) {
+            computeReserved();
+            reserveCalcule = true;
+        }
+        int today = dayIndex(LocalDate.now());
+        if (today >= 0 && today < days) {
+            aRecompter.set(today);
+        }
+
+        int first = aRecompter.nextSetBit(0);
+        if (first < 0) {
+            return 0;
+        }
+        int count = 0;
+        LocalTime now = LocalTime.now();
+        int minuteNow = now.getHour() * 60 + now.getMinute();
+        for (int d = first; d >= 0; d = aRecompter.nextSetBit(d + 1)) {
+            countActual(d, d == today ? minuteNow : FERMETURE);
+            count++;
+        }
+        aRecompter.clear();
+        accumulate(first);
+        return count;
+    }
+
+    /**
+     * Minutes réservées : les contrats ne changent pas pendant la vie du calcul.
+     */
+    private void computeReserved() {
+        for (Contrat contrat : contrats) {
+            LocalDate start = contrat.start().isBefore(origin) ? origin : contrat.start();
+            int last = Math.min(days - 1, dayIndex(contrat.end()));
+            for (int d = dayIndex(start); d <= last; d++) {
+                if (contrat.isReserved(origin.plusDays(d))) {
+                    add(reserve, d, contrat.arrival(), contrat.departure());
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompte les minutes réalisées d'un jour.
+     *
+     * @param fin la fin des présences en cours (minute)
+     */
+    private void countActual(int d, int fin) {
+        Arrays.fill(realise, d * CRENEAUX, (d + 1) * CRENEAUX, 0);
+        pointages.forEachPresence(origin.plusDays(d), (childId, arrival, departure) ->
+                add(realise, d, arrival, departure != PointageStore.EN_COURS ? departure : Math.max(arrival, fin)));
+    }
+
+    /**
+     * Répartit l'intervalle [from, to[ sur les créneaux du jour.
+     */
+    private static void add(int[] minutes, int d, int from, int to) {
+        from = Math.max(from, OUVERTURE);
+        to = Math.min(to, FERMETURE);
+        for (int slot = (from - OUVERTURE) / CRENEAU; from < to; slot++) {
+            int slotEnd = OUVERTURE + (slot + 1) * CRENEAU;
+            int end = Math.min(to, slotEnd);
+            minutes[d * CRENEAUX + slot] += end - from;
+            from = end;
+        }
+    }
+
+    /**
+     * Recalcule les cumuls à partir d'un jour.
+     */
+    private void accumulate(int first) {
+        for (int d = first; d < days; d++) {
+            long dayReserved = 0;
+            long dayActual = 0;
+            for (int slot = 0; slot < CRENEAUX; slot++) {
+                int cell = d * CRENEAUX + slot;
+                int index = slot * (days + 1) + d;
+                cumulReserveCreneau[index + 1] = cumulReserveCreneau[index] + reserve[cell];
+                cumulRealiseCreneau[index + 1] = cumulRealiseCreneau[index] + realise[cell];
+                dayReserved += reserve[cell];
+                dayActual += realise[cell];
+            }
+            cumulReserve[d + 1] = cumulReserve[d] + dayReserved;
+            cumulRealise[d + 1] = cumulRealise[d] + dayActual;
+            cumulOuverture[d + 1] = cumulOuverture[d] + (isOpen(origin.plusDays(d)) ? 1 : 0);
+        }
+    }
+
+    /**
+     * @return true si la crèche est ouverte ce jour (du lundi au vendredi)
+     */
+    public static boolean isOpen(LocalDate day) {
+        return day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY;
+    }
+
+    // ==================== TAUX ====================
+
+    /**
+     * Occupation d'une période.
+     *
+     * @param reservedMinutes les minutes réservées au contrat
+     * @param actualMinutes les minutes de présence réalisées
+     * @param capacityMinutes la capacité de la période (places × minutes d'ouverture)
+     */
+    public record Taux(long reservedMinutes, long actualMinutes, long capacityMinutes) {
+
+        /**
+         * @return le taux d'occupation réservé (0 à 1)
+         */
+        public double reservedRate() {
+            return capacityMinutes > 0 ? (double) reservedMinutes / capacityMinutes : 0;
+        }
+
+        /**
+         * @return le taux d'occupation réalisé (0 à 1)
+         */
+        public double actualRate() {
+            return capacityMinutes > 0 ? (double) actualMinutes / capacityMinutes : 0;
+        }
+    }
+
+    /**
+     * Occupation d'une période, tous créneaux confondus.
+     *
+     * @param from le premier jour
+     * @param to le dernier jour (inclus)
+     * @return l'occupation (vide hors de la période couverte)
+     */
+    public synchronized Taux getTaux(LocalDate from, LocalDate to) {
+        int start = clamp(dayIndex(from));
+        int end = clamp(dayIndex(to) + 1);
+        if (end <= start) {
+            return new Taux(0, 0, 0);
+        }
+        long openDays = cumulOuverture[end] - cumulOuverture[start];
+        return new Taux(cumulReserve[end] - cumulReserve[start], cumulRealise[end] - cumulRealise[start],
+                openDays * places * (FERMETURE - OUVERTURE));
+    }
+
+    /**
+     * Occupation d'un créneau sur une période.
+     *
+     * @param from le premier jour
+     * @param to le dernier jour (inclus)
+     * @param slot le créneau (0 pour {@link #OUVERTURE})
+     * @return l'occupation du créneau
+     */
+    public synchronized Taux getTaux(LocalDate from, LocalDate to, int slot) {
+        int start = clamp(dayIndex(from));
+        int end = clamp(dayIndex(to) + 1);
+        if (end <= start) {
+            return new Taux(0, 0, 0);
+        }
+        int base = slot * (days + 1);
+        long openDays = cumulOuverture[end] - cumulOuverture[start];
+        return new Taux(cumulReserveCreneau[base + end] - cumulReserveCreneau[base + start],
+                cumulRealiseCreneau[base + end] - cumulRealiseCreneau[base + start],
+                openDays * places * CRENEAU);
+    }
+
+    /**
+     * @param day le jour
+     * @return l'occupation du jour
+     */
+    public Taux getTaux(LocalDate day) {
+        return getTaux(day, day);
+    }
+
+    /**
+     * @param month le mois
+     * @return l'occupation du mois
+     */
+    public Taux getTaux(YearMonth month) {
+        return getTaux(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * @param year l'année
+     * @return l'occupation de l'année
+     */
+    public Taux getTaux(int year) {
+        return getTaux(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    /**
+     * @param slot le créneau
+     * @return l'heure de début du créneau
+     */
+    public static LocalTime slotStart(int slot) {
+        return LocalTime.of(0, 0).plusMinutes(OUVERTURE + (long) slot * CRENEAU);
+    }
+
+    /**
+     * @return la capacité d'accueil (places)
+     */
+    public int getPlaces() {
+        return places;
+    }
+
+    /**
+     * @return le premier jour couvert
+     */
+    public LocalDate getFirstDay() {
+        return origin;
+    }
+
+    /**
+     * @return le dernier jour couvert
+     */
+    public LocalDate getLastDay() {
+        return origin.plusDays(days - 1);
+    }
+
+    private int dayIndex(LocalDate day) {
+        return (int) (day.toEpochDay() - origin.toEpochDay());
+    }
+
+    private int clamp(int index) {
+        return Math.max(0, Math.min(days, index));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TauxOccupation[jours=" + days + ", places=" + places + ", à recompter=" + aRecompter.cardinality() + "]";
+    }
+}
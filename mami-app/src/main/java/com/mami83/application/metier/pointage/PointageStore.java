@@ -0,0 +1,453 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.pointage;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pointages des enfants (arrivées et départs), stockés en colonnes.
+ * <p>
+ * Une ligne correspond à une présence : enfant (index dense), jour, minute d'arrivée et
+ * minute de départ ({@link #EN_COURS} tant que l'enfant n'est pas reparti).
+ * Chaque champ est une colonne de type primitif ; les lignes d'un même jour
+ * sont chaînées entre elles. Les requêtes ne parcourent donc que les
+ * pointages du jour demandé (quelques centaines au plus), quelle que soit
+ * la profondeur de l'historique.
+ * <p>
+ * Les jours sont comptés depuis le jour d'origine du stockage, les minutes
+ * depuis minuit. Les méthodes sont synchronisées : les pointages sont saisis
+ * sur l'EDT et l'historique est chargé en arrière-plan.
+ *
+ * @author Association MAMI
+ */
+public class PointageStore {
+
+    /** Départ d'une présence en cours */
+    public static final int EN_COURS = -1;
+
+    /** Dernière minute de la journée (exclue) */
+    public static final int MINUTES_PAR_JOUR = 24 * 60;
+
+    private static final int CAPACITE_INITIALE = 1024;
+
+    /**
+     * Notification de modification des pointages d'un enfant pour un jour.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param childId l'identifiant de l'enfant
+         * @param day le jour modifié
+         */
+        void pointageChanged(int childId, LocalDate day);
+    }
+
+    /**
+     * Parcours des présences d'un jour.
+     */
+    @FunctionalInterface
+    public interface PresenceVisitor {
+        /**
+         * @param childId l'identifiant de l'enfant
+         * @param arrival la minute d'arrivée
+         * @param departure la minute de départ, ou {@link #EN_COURS}
+         */
+        void visit(int childId, int arrival, int departure);
+    }
+
+    private final LocalDate origin;
+    private final long originEpochDay;
+
+    // Colonnes, une entrée par présence (enfant : index dense dans childIds)
+    private int[] childColumn = new int[CAPACITE_INITIALE];
+    private int[] dayColumn = new int[CAPACITE_INITIALE];
+    private int[] arrivalColumn = new int[CAPACITE_INITIALE];
+    private int[] departureColumn = new int[CAPACITE_INITIALE];
+    private int[] nextInDayColumn = new int[CAPACITE_INITIALE];
+    private int size = 0;
+
+    // Première ligne de chaque jour (-1 si aucune)
+    private int[] dayHeads = new int[0];
+
+    // Enfants inscrits : identifiant -> index dense
+    private final Map<Integer, Integer> childIndex = new HashMap<>();
+    private int[] childIds = new int[64];
+    private int childCount = 0;
+
+    private final List<Listener> listeners = new ArrayList<>();
+
+    /**
+     * Crée un stockage vide.
+     *
+     * @param origin le premier jour pouvant être pointé
+     */
+    public PointageStore(LocalDate origin) {
+        this.origin = origin;
+        this.originEpochDay = origin.toEpochDay();
+    }
+
+    /**
+     * @return le premier jour pouvant être pointé
+     */
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    // ==================== ENFANTS ====================
+
+    /**
+     * Inscrit un enfant (sans effet s'il l'est déjà).
+     *
+     * @param childId l'identifiant de l'enfant
+     */
+    public synchronized void registerChild(int childId) {
+        if (childIndex.containsKey(childId)) {
+            return;
+        }
+        if (childCount == childIds.length) {
+            childIds = Arrays.copyOf(childIds, childCount * 2);
+        }
+        childIds[childCount] = childId;
+        childIndex.put(childId, childCount++);
+    }
+
+    /**
+     * @return les identifiants des enfants inscrits
+     */
+    public synchronized int[] getChildren() {
+        return Arrays.copyOf(childIds, childCount);
+    }
+
+    // ==================== SAISIE ====================
+
+    /**
+     * Pointe l'arrivée d'un enfant.
+     *
+     * @param childId l'identifiant de l'enfant
+     * @param day le jour
+     * @param minute la minute d'arrivée (depuis minuit)
+     * @return le numéro de la ligne créée
+     * @throws IllegalStateException si l'enfant est déjà présent ce jour
+     */
+    public int arrive(int childId, LocalDate day, int minute) {
+        int row;
+        synchronized (this) {
+            int dayIndex = dayIndex(day);
+            int child = indexOf(childId);
+            if (findOpenRow(child, dayIndex) >= 0) {
+                throw new IllegalStateException("Enfant " + childId + " déjà présent le " + day);
+            }
+            row = append(child, dayIndex, checkMinute(minute), EN_COURS);
+        }
+        fireChanged(childId, day);
+        return row;
+    }
+
+    /**
+     * Pointe le départ d'un enfant présent.
+     *
+     * @param childId l'identifiant de l'enfant
+     * @param day le jour
+     * @param minute la minute de départ (depuis minuit)
+     * @return le numéro de la ligne complétée
+     * @throws IllegalStateException si l'enfant n'est pas présent ce jour
+     */
+    public int depart(int childId, LocalDate day, int minute) {
+        int row;
+        synchronized (this) {
+            row = findOpenRow(indexOf(childId), dayIndex(day));
+            if (row < 0) {
+                throw new IllegalStateException("Enfant " + childId + " non présent le " + day);
+            }
+            departureColumn[row] = checkDeparture(arrivalColumn[row], minute);
+        }
+        fireChanged(childId, day);
+        return row;
+    }
+
+    /**
+     * Ajoute une présence complète (chargement de l'historique, saisie a posteriori).
+     *
+     * @param childId l'identifiant de l'enfant
+     * @param day le jour
+     * @param arrival la minute d'arrivée
+     * @param departure la minute de départ, ou {@link #EN_COURS}
+     * @return le numéro de la ligne créée
+     * @throws IllegalStateException si la présence est en cours et que l'enfant est déjà présent ce jour
+     */
+    public int record(int childId, LocalDate day, int arrival, int departure) {
+        int row;
+        synchronized (this) {
+            int dayIndex = dayIndex(day);
+            int child = indexOf(childId);
+            checkDeparture(checkMinute(arrival), departure);
+            if (departure == EN_COURS && findOpenRow(child, dayIndex) >= 0) {
+                throw new IllegalStateException("Enfant " + childId + " déjà présent le " + day);
+            }
+            row = append(child, dayIndex, arrival, departure);
+        }
+        fireChanged(childId, day);
+        return row;
+    }
+
+    /**
+     * Corrige les horaires d'une présence.
+     *
+     * @param row le numéro de la ligne
+     * @param arrival la nouvelle minute d'arrivée
+     * @param departure la nouvelle minute de départ, ou {@link #EN_COURS}
+     * @throws IllegalStateException si la présence est rouverte alors qu'une autre est en cours ce jour
+     */
+    public void correct(int row, int arrival, int departure) {
+        int childId;
+        LocalDate day;
+        synchronized (this) {
+            checkRow(row);
+            checkDeparture(checkMinute(arrival), departure);
+            childId = childIds[childColumn[row]];
+            day = origin.plusDays(dayColumn[row]);
+            if (departure == EN_COURS) {
+                int open = findOpenRow(childColumn[row], dayColumn[row]);
+                if (open >= 0 && open != row) {
+                    throw new IllegalStateException("Enfant " + childId + " déjà présent le " + day);
+                }
+            }
+            arrivalColumn[row] = arrival;
+            departureColumn[row] = departure;
+        }
+        fireChanged(childId, day);
+    }
+
+    /**
+     * @return le nombre de présences enregistrées
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * Enfants présents à une minute donnée.
+     *
+     * @param day le jour
+     * @param minute la minute (depuis minuit)
+     * @return les identifiants des enfants présents
+     */
+    public synchronized int[] getPresentChildren(LocalDate day, int minute) {
+        BitSet present = new BitSet(childCount);
+        for (int row = firstRow(day); row >= 0; row = nextInDayColumn[row]) {
+            int departure = departureColumn[row];
+            if (arrivalColumn[row] <= minute && (departure == EN_COURS || departure > minute)) {
+                present.set(childColumn[row]);
+            }
+        }
+        return toChildIds(present);
+    }
+
+    /**
+     * @return les identifiants des enfants présents en ce moment
+     */
+    public int[] getPresentNow() {
+        LocalDateTime now = LocalDateTime.now();
+        return getPresentChildren(now.toLocalDate(), now.getHour() * 60 + now.getMinute());
+    }
+
+    /**
+     * Enfants inscrits sans aucun pointage un jour donné.
+     *
+     * @param day le jour
+     * @return les identifiants des enfants non pointés
+     */
+    public synchronized int[] getNotCheckedIn(LocalDate day) {
+        BitSet missing = new BitSet(childCount);
+        missing.set(0, childCount);
+        for (int row = firstRow(day); row >= 0; row = nextInDayColumn[row]) {
+            missing.clear(childColumn[row]);
+        }
+        return toChildIds(missing);
+    }
+
+    /**
+     * @return les identifiants des enfants non pointés aujourd'hui
+     */
+    public int[] getNotCheckedInToday() {
+        return getNotCheckedIn(LocalDate.now());
+    }
+
+    /**
+     * Parcourt les présences d'un jour (dans l'ordre inverse de saisie).
+     *
+     * @param day le jour
+     * @param visitor le visiteur appelé pour chaque présence
+     */
+    public synchronized void forEachPresence(LocalDate day, PresenceVisitor visitor) {
+        for (int row = firstRow(day); row >= 0; row = nextInDayColumn[row]) {
+            visitor.visit(childIds[childColumn[row]], arrivalColumn[row], departureColumn[row]);
+        }
+    }
+
+    /**
+     * Parcourt les présences d'un enfant un jour donné.
+     *
+     * @param childId l'identifiant de l'enfant
+     * @param day le jour
+     * @param visitor le visiteur appelé pour chaque présence
+     */
+    public synchronized void forEachPresence(int childId, LocalDate day, PresenceVisitor visitor) {
+        Integer child = childIndex.get(childId);
+        if (child == null) {
+            return;
+        }
+        for (int row = firstRow(day); row >= 0; row = nextInDayColumn[row]) {
+            if (childColumn[row] == child) {
+                visitor.visit(childId, arrivalColumn[row], departureColumn[row]);
+            }
+        }
+    }
+
+    /**
+     * @param childId l'identifiant de l'enfant
+     * @param day le jour
+     * @return la ligne de la présence en cours de l'enfant, ou -1
+     */
+    public synchronized int getOpenRow(int childId, LocalDate day) {
+        Integer child = childIndex.get(childId);
+        return child != null ? findOpenRow(child, dayIndex(day)) : -1;
+    }
+
+    // ==================== ÉCOUTEURS ====================
+
+    /**
+     * Ajoute un écouteur des modifications, appelé sur le thread qui modifie.
+     *
+     * @param listener l'écouteur
+     */
+    public synchronized void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Retire un écouteur.
+     *
+     * @param listener l'écouteur
+     */
+    public synchronized void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireChanged(int childId, LocalDate day) {
+        List<Listener> snapshot;
+        synchronized (this) {
+            if (listeners.isEmpty()) {
+                return;
+            }
+            snapshot = List.copyOf(listeners);
+        }
+        for (Listener listener : snapshot) {
+            listener.pointageChanged(childId, day);
+        }
+    }
+
+    // ==================== COLONNES ====================
+
+    private int append(int child, int dayIndex, int arrival, int departure) {
+        if (size == childColumn.length) {
+            int capacity = size * 2;
+            childColumn = Arrays.copyOf(childColumn, capacity);
+            dayColumn = Arrays.copyOf(dayColumn, capacity);
+            arrivalColumn = Arrays.copyOf(arrivalColumn, capacity);
+            departureColumn = Arrays.copyOf(departureColumn, capacity);
+            nextInDayColumn = Arrays.copyOf(nextInDayColumn, capacity);
+        }
+        if (dayIndex >= dayHeads.length) {
+            int previous = dayHeads.length;
+            dayHeads = Arrays.copyOf(dayHeads, Math.max(dayIndex + 1, previous + previous / 2 + 32));
+            Arrays.fill(dayHeads, previous, dayHeads.length, -1);
+        }
+
+        int row = size++;
+        childColumn[row] = child;
+        dayColumn[row] = dayIndex;
+        arrivalColumn[row] = arrival;
+        departureColumn[row] = departure;
+        nextInDayColumn[row] = dayHeads[dayIndex];
+        dayHeads[dayIndex] = row;
+        return row;
+    }
+
+    private int indexOf(int childId) {
+        Integer child = childIndex.get(childId);
+        if (child == null) {
+            throw new IllegalArgumentException("Enfant non inscrit: " + childId);
+        }
+        return child;
+    }
+
+    private int findOpenRow(int child, int dayIndex) {
+        int row = dayIndex < dayHeads.length ? dayHeads[dayIndex] : -1;
+        for (; row >= 0; row = nextInDayColumn[row]) {
+            if (childColumn[row] == child && departureColumn[row] == EN_COURS) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private int firstRow(LocalDate day) {
+        long dayIndex = day.toEpochDay() - originEpochDay;
+        return dayIndex >= 0 && dayIndex < dayHeads.length ? dayHeads[(int) dayIndex] : -1;
+    }
+
+    private int dayIndex(LocalDate day) {
+        long dayIndex = day.toEpochDay() - originEpochDay;
+        if (dayIndex < 0 || dayIndex > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Jour antérieur à l'origine du pointage: " + day);
+        }
+        return (int) dayIndex;
+    }
+
+    private int[] toChildIds(BitSet indexes) {
+        int[] ids = new int[indexes.cardinality()];
+        int i = 0;
+        for (int index = indexes.nextSetBit(0); index >= 0; index = indexes.nextSetBit(index + 1)) {
+            ids[i++] = childIds[index];
+        }
+        return ids;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IllegalArgumentException("Ligne de pointage inconnue: " + row);
+        }
+    }
+
+    private static int checkMinute(int minute) {
+        if (minute < 0 || minute >= MINUTES_PAR_JOUR) {
+            throw new IllegalArgumentException("Minute invalide: " + minute);
+        }
+        return minute;
+    }
+
+    private static int checkDeparture(int arrival, int departure) {
+        if (departure != EN_COURS && (checkMinute(departure) < arrival)) {
+            throw new IllegalArgumentException("Départ avant l'arrivée: " + departure + " < " + arrival);
+        }
+        return departure;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PointageStore[enfants=" + childCount + ", présences=" + size + ", depuis " + origin + "]";
+    }
+}
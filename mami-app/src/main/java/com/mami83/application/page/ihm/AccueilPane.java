@@ -9,12 +9,31 @@ import com.mami83.application.MamiApp;
 import com.mami83.application.MamiView;
 import com.mami83.application.composants.Icons;
 import com.mami83.application.composants.navigation.NavigationButton;
+import com.mami83.application.metier.Simulation;
+import com.mami83.application.metier.document.DocumentRenderer;
+import com.mami83.application.metier.facturation.FacturationMensuelle;
+import com.mami83.application.metier.facturation.HeuresFacturables;
+import com.mami83.application.metier.occupation.TauxOccupation;
+import com.mami83.application.metier.pointage.PointageStore;
+import com.mami83.application.page.module.ModuleData;
+import com.mami83.application.page.module.ModuleDescriptor;
+import com.mami83.application.page.module.ModuleRegistry;
+import com.mami83.application.util.ResourceImageCache;
 import com.mami83.application.util.TaskExecutor;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
 import java.awt.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
 
 /**
  * Panel d'accueil principal après connexion.
@@ -31,6 +50,19 @@ public class AccueilPane extends JPanel {
     private boolean accesAdministration = true;
     private boolean accesExtranet = true;
 
+    /** Nombre de modules préchargés après la connexion */
+    private static final int PREFETCH_COUNT = 3;
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.FRENCH);
+
+    private final ModuleRegistry moduleRegistry;
+
+    // Calcul des heures partagé par les modules Enfants et Parents (EDT)
+    private HeuresFacturables heuresFacturables;
+
+    // Taux d'occupation du module Administration (EDT)
+    private TauxOccupation tauxOccupation;
+
     /**
      * Constructeur du panel d'accueil.
      */
@@ -38,6 +70,8 @@ public class AccueilPane extends JPanel {
         setOpaque(false);
         setLayout(new GridBagLayout());
 
+        moduleRegistry = createModuleRegistry();
+
         // Panel central avec les boutons
         JPanel actionPanel = createActionPanel();
 
@@ -48,6 +82,8 @@ public class AccueilPane extends JPanel {
         gbc.weightx = 1.0;
         gbc.weighty = 1.0;
         add(actionPanel, gbc);
+
+        startPrefetch();
     }
 
     /**
@@ -172,74 +208,313 @@ public class AccueilPane extends JPanel {
         return button;
     }
 
+    // ==================== MODULES ====================
+
+    /**
+     * Déclare les modules, leurs données et leurs panels.
+     * Les chargements sont simulés en attendant l'accès à la base.
+     */
+    private ModuleRegistry createModuleRegistry() {
+        ModuleRegistry registry = new ModuleRegistry();
+
+        // TODO: remplacer les simulations par les requêtes réelles
+        registry.registerData("familles", () -> simulerChargement(150));
+        registry.registerData("contrats", () -> Simulation.contrats(LocalDate.now()));
+        registry.registerData("salaries", () -> simulerChargement(150));
+        registry.registerData("parametres", () -> simulerChargement(100));
+        registry.registerData("compte", () -> simulerChargement(50));
+        registry.registerData("pointages", () -> Simulation.pointages(LocalDate.now()));
+        registry.registerData("avoirs", () -> Simulation.avoirs(LocalDate.now()));
+
+        registry.register(createModule("accueilEnfant", "Module Enfants", "Enfants",
+                new Color(52, 152, 219), Icons.childIcon(), accesEnfant,
+                data -> new PointagePane(data.get("pointages"), Simulation::childName,
+                        () -> afficherModule("listeHeures"))))
+                .dependsOn("familles", "contrats", "pointages");
+        registry.register(createModule("accueilParent", "Module Parents", "Parents",
+                new Color(46, 204, 113), Icons.familyIcon(), accesParents,
+                data -> createPlaceholderPanel("Module Parents", new Color(46, 204, 113),
+                        createActionButton("Liste des heures", () -> afficherModule("listeHeures")),
+                        createActionButton("Générer les factures", () -> genererFactures(data)),
+                        createActionButton("Factures PDF", "/images/ninio/Pdf", this::imprimerFactures),
+                        createActionButton("Attestations fiscales", "/images/ninio/Attestation fiscales",
+                                this::imprimerAttestations))))
+                .dependsOn("familles", "contrats", "pointages", "avoirs");
+        registry.register(createModule("accueilSalarie", "Module Salariés", "Salariés",
+                new Color(155, 89, 182), Icons.employeeIcon(), accesSalaries))
+                .dependsOn("salaries", "contrats");
+        registry.register(createModule("accueilAdministration", "Module Administration", "Admin",
+                new Color(241, 196, 15), Icons.adminIcon(), accesAdministration,
+                data -> new OccupationPane(tauxOccupation(data))))
+                .dependsOn("parametres", "pointages", "contrats");
+        registry.register(createModule("accueilExtranet", "Module Extranet", "Extranet",
+                new Color(230, 126, 34), Icons.globeIcon(), accesExtranet))
+                .dependsOn("compte");
+        registry.register(createModule("mesIdentifiants", "Mes Identifiants", "Identifiants",
+                new Color(149, 165, 166), Icons.keyIcon(), true))
+                .dependsOn("compte");
+
+        // Écrans secondaires, ouverts depuis les modules
+        registry.register(createModule("listeHeures", "Liste des heures", "Heures",
+                new Color(46, 204, 113), Icons.familyIcon(), accesEnfant || accesParents,
+                data -> new HeuresPane(heuresFacturables(data), Simulation::childName, Simulation::familyOf)))
+                .dependsOn("pointages", "contrats");
+
+        return registry;
+    }
+
+    private ModuleDescriptor createModule(String panelName, String title, String buttonText,
+                                          Color color, Icon icon, boolean accessible) {
+        return createModule(panelName, title, buttonText, color, icon, accessible,
+                data -> createPlaceholderPanel(title, color));
+    }
+
+    private ModuleDescriptor createModule(String panelName, String title, String buttonText, Color color,
+                                          Icon icon, boolean accessible, Function<ModuleData, JComponent> factory) {
+        return new ModuleDescriptor(panelName, title, buttonText, color, icon, accessible, factory);
+    }
+
+    /**
+     * Calcul des heures, créé au premier écran qui en a besoin et recréé si
+     * les pointages ont été rechargés.
+     */
+    private HeuresFacturables heuresFacturables(ModuleData data) {
+        PointageStore pointages = data.get("pointages");
+        if (heuresFacturables == null || heuresFacturables.getPointages() != pointages) {
+            if (heuresFacturables != null) {
+                heuresFacturables.close();
+            }
+            heuresFacturables = new HeuresFacturables(pointages, data.get("contrats"));
+        }
+        return heuresFacturables;
+    }
+
+    /**
+     * Taux d'occupation, jusqu'à la fin de l'année courante (prévisions des
+     * contrats comprises), recréé si les pointages ont été rechargés.
+     */
+    private TauxOccupation tauxOccupation(ModuleData data) {
+        PointageStore pointages = data.get("pointages");
+        if (tauxOccupation == null || tauxOccupation.getPointages() != pointages) {
+            if (tauxOccupation != null) {
+                tauxOccupation.close();
+            }
+            LocalDate today = LocalDate.now();
+            tauxOccupation = new TauxOccupation(pointages, data.get("contrats"), Simulation.PLACES,
+                    today.withDayOfYear(today.lengthOfYear()));
+        }
+        return tauxOccupation;
+    }
+
+    private static Object simulerChargement(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Précharge les premiers modules accessibles dès que l'application est inactive.
+     */
+    private void startPrefetch() {
+        MamiView view = MamiApp.getMamiView();
+        if (view == null) {
+            return;
+        }
+        moduleRegistry.prefetchWhenIdle(PREFETCH_COUNT,
+                () -> view.getRunningTaskCount() == 0, view::hasPanel);
+    }
+
+    /**
+     * Génère les factures d'un mois en arrière-plan, dans le dossier
+     * {@code mami.factures.dir} (par défaut "factures").
+     */
+    private void genererFactures(ModuleData data) {
+        YearMonth month = choisirMois("Mois à facturer :");
+        if (month == null) {
+            return;
+        }
+        String monthLabel = MONTH_FORMAT.format(month);
+
+        Path file = facturesFile(month);
+        boolean reprendre = true;
+        if (Files.exists(file)) {
+            int answer = JOptionPane.showConfirmDialog(this,
+                    "Des factures existent déjà pour " + monthLabel + ".\n"
+                            + "Oui : reprendre (ou conserver) le fichier existant\nNon : tout regénérer",
+                    "Factures", JOptionPane.YES_NO_CANCEL_OPTION);
+            if (answer != JOptionPane.YES_OPTION && answer != JOptionPane.NO_OPTION) {
+                return;
+            }
+            reprendre = answer == JOptionPane.YES_OPTION;
+        }
+
+        FacturationMensuelle facturation = new FacturationMensuelle(heuresFacturables(data),
+                data.get("contrats"), data.get("avoirs"), Simulation::childName);
+        boolean resume = reprendre;
+        TaskExecutor.executeWithProgress("Facturation " + monthLabel, "factures-" + month,
+                TaskExecutor.Priority.INTERACTIVE,
+                reporter -> {
+                    Files.createDirectories(file.toAbsolutePath().getParent());
+                    return facturation.generate(month, file, resume, reporter);
+                },
+                result -> MamiApp.getMamiView().setStatusMessage("Factures " + monthLabel + " : "
+                        + (result.factures() + result.reprises()) + " factures ("
+                        + result.reprises() + " reprises) dans " + result.file().toAbsolutePath()),
+                error -> JOptionPane.showMessageDialog(this,
+                        "Erreur lors de la facturation : " + error.getMessage(),
+                        "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Rend en PDF les factures déjà générées d'un mois (tâche de fond).
+     */
+    private void imprimerFactures() {
+        YearMonth month = choisirMois("Factures à imprimer :");
+        if (month == null) {
+            return;
+        }
+        Path file = facturesFile(month);
+        if (!Files.exists(file)) {
+            JOptionPane.showMessageDialog(this, "Générez d'abord les factures de " + MONTH_FORMAT.format(month) + ".",
+                    "Factures PDF", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        Path directory = file.resolveSibling("pdf-" + month);
+        TaskExecutor.executeWithProgress("Factures PDF " + MONTH_FORMAT.format(month), "pdf-" + month,
+                TaskExecutor.Priority.BACKGROUND,
+                reporter -> DocumentRenderer.renderFactures(file, directory, reporter),
+                this::afficherBilanDocuments, this::afficherErreurDocuments);
+    }
+
+    /**
+     * Rend les attestations fiscales d'une année à partir de ses fichiers de factures (tâche de fond).
+     */
+    private void imprimerAttestations() {
+        int currentYear = LocalDate.now().getYear();
+        Integer[] years = {currentYear - 1, currentYear, currentYear - 2};
+        Integer year = (Integer) JOptionPane.showInputDialog(this, "Année :", "Attestations fiscales",
+                JOptionPane.QUESTION_MESSAGE, null, years, years[0]);
+        if (year == null) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        for (int m = 1; m <= 12; m++) {
+            Path file = facturesFile(YearMonth.of(year, m));
+            if (Files.exists(file)) {
+                files.add(file);
+            }
+        }
+        if (files.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Aucune facture générée pour " + year + ".",
+                    "Attestations fiscales", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        Path directory = files.get(0).resolveSibling("attestations-" + year);
+        LocalDate today = LocalDate.now();
+        TaskExecutor.executeWithProgress("Attestations fiscales " + year, "attestations-" + year,
+                TaskExecutor.Priority.BACKGROUND,
+                reporter -> DocumentRenderer.renderAttestations(year, files, today, directory, reporter),
+                this::afficherBilanDocuments, this::afficherErreurDocuments);
+    }
+
+    private void afficherBilanDocuments(DocumentRenderer.Bilan bilan) {
+        MamiApp.getMamiView().setStatusMessage(bilan.documents() + " documents ("
+                + bilan.bytes() / 1024 + " Ko) dans " + bilan.directory().toAbsolutePath());
+    }
+
+    private void afficherErreurDocuments(Exception error) {
+        JOptionPane.showMessageDialog(this, "Erreur lors de l'impression : " + error.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Demande un mois parmi les douze derniers (le mois précédent par défaut).
+     *
+     * @return le mois choisi, ou null si l'utilisateur annule
+     */
+    private YearMonth choisirMois(String message) {
+        YearMonth[] months = new YearMonth[12];
+        String[] labels = new String[months.length];
+        for (int i = 0; i < months.length; i++) {
+            months[i] = YearMonth.now().minusMonths(i);
+            labels[i] = MONTH_FORMAT.format(months[i]);
+        }
+        Object choice = JOptionPane.showInputDialog(this, message, "Factures",
+                JOptionPane.QUESTION_MESSAGE, null, labels, labels[1]);
+        return choice != null ? months[Arrays.asList(labels).indexOf(choice)] : null;
+    }
+
+    /**
+     * @return le fichier de factures d'un mois, dans le dossier {@code mami.factures.dir}
+     */
+    private static Path facturesFile(YearMonth month) {
+        return Path.of(System.getProperty("mami.factures.dir", "factures"), "factures-" + month + ".csv");
+    }
+
+    private static JButton createActionButton(String text, String iconName, Runnable action) {
+        JButton button = createActionButton(text, action);
+        button.setIcon(ResourceImageCache.getDefault().getIcon(iconName, 16));
+        return button;
+    }
+
+    private static JButton createActionButton(String text, Runnable action) {
+        JButton button = new JButton(text);
+        button.addActionListener(e -> action.run());
+        return button;
+    }
+
     // ==================== ACTIONS DE NAVIGATION ====================
 
     private void afficherAccueilEnfant() {
-        loadModuleWithProgress("Module Enfants", "accueilEnfant", new Color(52, 152, 219), 
-                               "Enfants", Icons.childIcon());
+        afficherModule("accueilEnfant");
     }
 
     private void afficherAccueilParent() {
-        loadModuleWithProgress("Module Parents", "accueilParent", new Color(46, 204, 113), 
-                               "Parents", Icons.familyIcon());
+        afficherModule("accueilParent");
     }
 
     private void afficherAccueilSalarie() {
-        loadModuleWithProgress("Module Salariés", "accueilSalarie", new Color(155, 89, 182), 
-                               "Salariés", Icons.employeeIcon());
+        afficherModule("accueilSalarie");
     }
 
     private void afficherAccueilAdministration() {
-        loadModuleWithProgress("Module Administration", "accueilAdministration", new Color(241, 196, 15), 
-                               "Admin", Icons.adminIcon());
+        afficherModule("accueilAdministration");
     }
 
     private void afficherExtranet() {
-        loadModuleWithProgress("Module Extranet", "accueilExtranet", new Color(230, 126, 34), 
-                               "Extranet", Icons.globeIcon());
+        afficherModule("accueilExtranet");
     }
 
     private void afficherMesIdentifiants() {
-        loadModuleWithProgress("Mes Identifiants", "mesIdentifiants", new Color(149, 165, 166), 
-                               "Identifiants", Icons.keyIcon());
+        afficherModule("mesIdentifiants");
     }
 
     /**
-     * Charge un module avec affichage du spinner.
+     * Affiche un module : immédiatement s'il a été préchargé,
+     * sinon après chargement avec spinner.
      */
-    private void loadModuleWithProgress(String moduleName, String panelName, Color color, 
-                                         String buttonText, Icon buttonIcon) {
+    private void afficherModule(String panelName) {
         MamiView view = MamiApp.getMamiView();
-        
+
         // Si le panel existe déjà, juste l'afficher
         if (view.hasPanel(panelName)) {
             view.showPanel(panelName);
             return;
         }
 
-        // Charger avec spinner
-        TaskExecutor.executeWithProgress("Chargement " + moduleName, reporter -> {
-            // Simulation du chargement
-            reporter.updateProgress(20, "Initialisation...");
-            Thread.sleep(100);
-            
-            reporter.updateProgress(50, "Chargement des ressources...");
-            Thread.sleep(100);
-            
-            reporter.updateProgress(80, "Création de l'interface...");
-            JPanel panel = createPlaceholderPanel(moduleName, color);
-            Thread.sleep(100);
-            
-            return panel;
-        }, panel -> {
-            // Callback de succès
+        ModuleDescriptor module = moduleRegistry.getModule(panelName);
+        moduleRegistry.open(panelName, panel -> {
             view.addAndShow(panel, panelName);
-            addNavigationButtonIfNeeded(panelName, buttonText, buttonIcon, panelName);
-        }, error -> {
-            JOptionPane.showMessageDialog(this, 
-                "Erreur lors du chargement du module: " + error.getMessage(),
-                "Erreur", JOptionPane.ERROR_MESSAGE);
-        });
+            // Libérable sous pression mémoire : reconstruit au prochain affichage
+            view.setPanelRebuilder(panelName,
+                    onReady -> moduleRegistry.open(panelName, onReady, this::afficherErreurChargement));
+            addNavigationButtonIfNeeded(panelName, module.getButtonText(), module.getIcon(), panelName);
+        }, this::afficherErreurChargement);
+    }
+
+    private void afficherErreurChargement(Exception error) {
+        JOptionPane.showMessageDialog(this,
+            "Erreur lors du chargement du module: " + error.getMessage(),
+            "Erreur", JOptionPane.ERROR_MESSAGE);
     }
 
     /**
@@ -259,9 +534,10 @@ public class AccueilPane extends JPanel {
     }
 
     /**
-     * Crée un panel placeholder pour les modules non encore implémentés.
+     * Crée un panel placeholder pour les modules non encore implémentés,
+     * avec les écrans déjà disponibles sous forme de boutons.
      */
-    private JPanel createPlaceholderPanel(String moduleName, Color color) {
+    private JPanel createPlaceholderPanel(String moduleName, Color color, JButton... actions) {
         JPanel panel = new JPanel(new GridBagLayout());
         panel.setOpaque(false);
 
@@ -280,10 +556,26 @@ public class AccueilPane extends JPanel {
         contentPanel.add(label, BorderLayout.CENTER);
         contentPanel.add(subLabel, BorderLayout.SOUTH);
 
+        if (actions.length > 0) {
+            JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 15));
+            actionsPanel.setOpaque(false);
+            for (JButton action : actions) {
+                actionsPanel.add(action);
+            }
+            contentPanel.add(actionsPanel, BorderLayout.NORTH);
+        }
+
         panel.add(contentPanel);
         return panel;
     }
 
+    /**
+     * @return le registre des modules
+     */
+    public ModuleRegistry getModuleRegistry() {
+        return moduleRegistry;
+    }
+
     // ==================== GETTERS POUR LES PERMISSIONS ====================
 
     public boolean isAccesEnfant() {
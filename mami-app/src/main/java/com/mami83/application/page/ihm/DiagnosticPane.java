@@ -0,0 +1,290 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.page.ihm;
+
+import com.mami83.application.util.EdtWatchdog;
+import com.mami83.application.util.MamiRepaintManager;
+import com.mami83.application.util.TimedEventQueue;
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Map;
+
+/**
+ * Panel de diagnostic (caché) : réactivité de l'EDT mesurée par {@link EdtWatchdog}
+ * statistiques de repaint de {@link MamiRepaintManager} et, si elle est installée,
+ * durée des événements mesurée par {@link TimedEventQueue}.
+ * Accessible par Ctrl+Alt+D, puis depuis la barre de navigation.
+ * Les valeurs sont rafraîchies chaque seconde tant que le panel est affiché.
+ *
+ * @author Association MAMI
+ */
+public class DiagnosticPane extends JPanel {
+
+    /** Intervalle de rafraîchissement */
+    private static final int REFRESH_MS = 1000;
+
+    private static final Color BAR_COLOR = new Color(52, 152, 219);
+    private static final Color HANG_COLOR = new Color(231, 76, 60);
+
+    /** Nombre de groupes d'événements affichés */
+    private static final int EVENT_ROWS = 12;
+
+    private final JPanel content;
+    private final JLabel samplesLabel = createValueLabel();
+    private final JLabel averageLabel = createValueLabel();
+    private final JLabel percentilesLabel = createValueLabel();
+    private final JLabel maxLabel = createValueLabel();
+    private final JLabel hangsLabel = createValueLabel();
+    private final HistogramChart histogramChart = new HistogramChart();
+    private final JTextArea hangReportArea;
+    private final JTextArea eventsArea;
+    private final JLabel paintCyclesLabel = createValueLabel();
+    private final JLabel repaintsLabel = createValueLabel();
+    private final JTextArea repaintsArea;
+    private final Timer refreshTimer;
+
+    /**
+     * Constructeur du panel de diagnostic.
+     */
+    public DiagnosticPane() {
+        setOpaque(false);
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        content = new JPanel(new MigLayout("wrap 2, insets 20, gap 10 6", "[right][grow, fill]", ""));
+        content.setBackground(new Color(250, 250, 250));
+
+        JLabel title = new JLabel("Diagnostic");
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 24f));
+        content.add(title, "span 2, left, wrap 15");
+
+        addSection("Réactivité de l'EDT");
+        addRow("Battements :", samplesLabel);
+        addRow("Délai moyen :", averageLabel);
+        addRow("Centiles :", percentilesLabel);
+        addRow("Délai maximal :", maxLabel);
+        addRow("Blocages :", hangsLabel);
+        content.add(new JLabel("Histogramme :"), "top");
+        content.add(histogramChart, "h 140!");
+
+        hangReportArea = createReportArea(10);
+        content.add(new JLabel("Dernier blocage :"), "top");
+        content.add(new JScrollPane(hangReportArea), "grow, push");
+
+        JButton resetButton = new JButton("Réinitialiser");
+        resetButton.addActionListener(e -> {
+            EdtWatchdog watchdog = EdtWatchdog.getInstance();
+            if (watchdog != null) {
+                watchdog.reset();
+            }
+            TimedEventQueue eventQueue = TimedEventQueue.getInstance();
+            if (eventQueue != null) {
+                eventQueue.reset();
+            }
+            MamiRepaintManager repaintManager = MamiRepaintManager.getInstance();
+            if (repaintManager != null) {
+                repaintManager.reset();
+            }
+            refresh();
+        });
+        content.add(resetButton, "skip, left");
+
+        addSection("Événements les plus coûteux");
+        eventsArea = createReportArea(EVENT_ROWS + 1);
+        content.add(new JScrollPane(eventsArea), "span 2, grow");
+
+        addSection("Repaints");
+        addRow("Cycles de peinture :", paintCyclesLabel);
+        addRow("Demandes :", repaintsLabel);
+        repaintsArea = createReportArea(EVENT_ROWS + 1);
+        content.add(new JScrollPane(repaintsArea), "span 2, grow");
+
+        add(content, BorderLayout.CENTER);
+
+        refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+        refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Met à jour les valeurs affichées.
+     */
+    private void refresh() {
+        refreshEvents();
+        refreshRepaints();
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        if (watchdog == null) {
+            samplesLabel.setText("Surveillance désactivée (-Dmami.edt.watchdog=false)");
+            return;
+        }
+        samplesLabel.setText(String.valueOf(watchdog.getSampleCount()));
+        averageLabel.setText(String.format("%.1f ms", watchdog.getAverageMillis()));
+        percentilesLabel.setText("p50 ≤ " + watchdog.getPercentileMillis(50) + " ms   p99 ≤ "
+                + watchdog.getPercentileMillis(99) + " ms");
+        maxLabel.setText(watchdog.getMaxMillis() + " ms");
+        hangsLabel.setText(watchdog.getHangCount() + " (seuil " + watchdog.getThresholdMillis() + " ms)");
+        histogramChart.setCounts(watchdog.getHistogram(), watchdog.getThresholdMillis());
+
+        String report = watchdog.getLastHangReport();
+        String text = report != null ? report : "Aucun blocage détecté";
+        setReportText(hangReportArea, text);
+    }
+
+    /**
+     * Met à jour le tableau des événements, triés par durée cumulée.
+     */
+    private void refreshEvents() {
+        TimedEventQueue eventQueue = TimedEventQueue.getInstance();
+        if (eventQueue == null) {
+            setReportText(eventsArea, "Mesure désactivée (option --event-timing)");
+            return;
+        }
+        StringBuilder text = new StringBuilder(String.format("%-18s %-40s %8s %9s %9s %9s%n",
+                "Type", "Cible", "Nombre", "Total ms", "p50 µs", "p99 µs"));
+        eventQueue.getSummaries().stream().limit(EVENT_ROWS).forEach(s -> {
+            String target = s.target().substring(s.target().lastIndexOf('.') + 1);
+            text.append(String.format("%-18s %-40s %8d %9d %9d %9d%n", s.eventType(), target,
+                    s.count(), s.totalMicros() / 1000, s.p50Micros(), s.p99Micros()));
+        });
+        setReportText(eventsArea, text.toString());
+    }
+
+    /**
+     * Met à jour les statistiques de repaint : classes triées par surface
+     * repeinte, puis sources des repaints de toute la fenêtre.
+     */
+    private void refreshRepaints() {
+        MamiRepaintManager repaintManager = MamiRepaintManager.getInstance();
+        if (repaintManager == null) {
+            paintCyclesLabel.setText("Statistiques désactivées (-Dmami.repaint.stats=false)");
+            return;
+        }
+        paintCyclesLabel.setText(String.format("%d (moyenne %.2f ms)",
+                repaintManager.getPaintCycleCount(), repaintManager.getAveragePaintMillis()));
+        repaintsLabel.setText(repaintManager.getMergedCount() + " regroupées sur un ancêtre opaque, "
+                + repaintManager.getCappedCount() + " repaints complets différés");
+
+        StringBuilder text = new StringBuilder(String.format("%-40s %9s %9s %9s %12s%n",
+                "Composant", "Demandes", "Peintures", "Complets", "Pixels"));
+        repaintManager.getSummaries().stream().limit(EVENT_ROWS).forEach(s -> {
+            String component = s.component().substring(s.component().lastIndexOf('.') + 1);
+            text.append(String.format("%-40s %9d %9d %9d %12d%n", component,
+                    s.requests(), s.paints(), s.fullWindow(), s.pixels()));
+        });
+        Map<String, Long> sources = repaintManager.getFullWindowSources();
+        if (!sources.isEmpty()) {
+            text.append("\nRepaints de toute la fenêtre :\n");
+            sources.forEach((source, count) -> text.append(String.format("%6d  %s%n", count, source)));
+        }
+        setReportText(repaintsArea, text.toString());
+    }
+
+    /**
+     * Remplace le texte d'une zone de rapport s'il a changé.
+     */
+    private static void setReportText(JTextArea area, String text) {
+        if (!text.equals(area.getText())) {
+            area.setText(text);
+            area.setCaretPosition(0);
+        }
+    }
+
+    private static JTextArea createReportArea(int rows) {
+        JTextArea area = new JTextArea(rows, 60);
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        return area;
+    }
+
+    /**
+     * Ajoute un titre de section.
+     */
+    private void addSection(String title) {
+        JLabel label = new JLabel(title);
+        label.setFont(label.getFont().deriveFont(Font.BOLD, 15f));
+        label.setForeground(new Color(30, 100, 180));
+        content.add(label, "span 2, left, gaptop 10");
+    }
+
+    /**
+     * Ajoute une ligne libellé / valeur.
+     */
+    private void addRow(String name, JComponent value) {
+        content.add(new JLabel(name));
+        content.add(value);
+    }
+
+    private static JLabel createValueLabel() {
+        JLabel label = new JLabel("-");
+        label.setFont(label.getFont().deriveFont(Font.BOLD));
+        return label;
+    }
+
+    /**
+     * Histogramme des délais de l'EDT, une barre par classe (échelle logarithmique).
+     */
+    private static final class HistogramChart extends JComponent {
+
+        private long[] counts = new long[0];
+        private long thresholdMs;
+
+        void setCounts(long[] counts, long thresholdMs) {
+            this.counts = counts;
+            this.thresholdMs = thresholdMs;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (counts.length == 0) {
+                return;
+            }
+            Graphics2D g2d = (Graphics2D) g.create();
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2d.setFont(getFont().deriveFont(10f));
+            FontMetrics fm = g2d.getFontMetrics();
+
+            long[] limits = EdtWatchdog.getBucketLimits();
+            long max = 1;
+            for (long count : counts) {
+                max = Math.max(max, count);
+            }
+            double logMax = Math.log1p(max);
+
+            int labelHeight = fm.getHeight() * 2;
+            int chartHeight = getHeight() - labelHeight;
+            int slot = getWidth() / counts.length;
+            for (int i = 0; i < counts.length; i++) {
+                int x = i * slot;
+                int barHeight = (int) (chartHeight * Math.log1p(counts[i]) / logMax);
+                boolean hang = i > 0 && limits[Math.min(i, limits.length) - 1] >= thresholdMs;
+                g2d.setColor(hang ? HANG_COLOR : BAR_COLOR);
+                g2d.fillRect(x + 2, chartHeight - barHeight, slot - 4, barHeight);
+
+                g2d.setColor(Color.DARK_GRAY);
+                String label = i < limits.length ? "<" + limits[i] : "≥" + limits[limits.length - 1];
+                g2d.drawString(label, x + (slot - fm.stringWidth(label)) / 2, chartHeight + fm.getAscent());
+                String count = String.valueOf(counts[i]);
+                g2d.drawString(count, x + (slot - fm.stringWidth(count)) / 2,
+                        chartHeight + fm.getHeight() + fm.getAscent());
+            }
+            g2d.dispose();
+        }
+    }
+}
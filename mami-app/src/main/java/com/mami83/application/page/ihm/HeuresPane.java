@@ -0,0 +1,201 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.page.ihm;
+
+import com.mami83.application.MamiApp;
+import com.mami83.application.MamiView;
+import com.mami83.application.metier.facturation.HeuresFacturables;
+import com.mami83.application.util.TaskExecutor;
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Liste des heures : heures facturées par enfant pour un mois.
+ * Les heures sont mises à jour à chaque affichage du panel : seules les
+ * journées-enfant modifiées depuis le dernier affichage sont recalculées,
+ * et leur nombre est affiché dans la barre de statut.
+ *
+ * @author Association MAMI
+ */
+public class HeuresPane extends JPanel {
+
+    private static final Color MODULE_COLOR = new Color(46, 204, 113);
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.FRENCH);
+
+    private final HeuresFacturables heures;
+    private final HeuresTableModel tableModel;
+    private final JLabel monthLabel = new JLabel();
+    private final JLabel totalLabel = new JLabel();
+    private YearMonth month = YearMonth.now();
+
+    /**
+     * Constructeur de la liste des heures.
+     *
+     * @param heures le calcul des heures facturées
+     * @param childNames le nom de chaque enfant, par identifiant
+     * @param families la famille de chaque enfant, par identifiant
+     */
+    public HeuresPane(HeuresFacturables heures, IntFunction<String> childNames, IntUnaryOperator families) {
+        this.heures = heures;
+        this.tableModel = new HeuresTableModel(childNames, families);
+
+        setOpaque(false);
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel content = new JPanel(new MigLayout("wrap 5, insets 20, gap 10 8",
+                "[][][][grow][]", "[][][grow, fill][]"));
+        content.setBackground(new Color(250, 250, 250));
+
+        JLabel title = new JLabel("Liste des heures");
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 24f));
+        title.setForeground(MODULE_COLOR);
+        content.add(title, "span 5, wrap 10");
+
+        JButton previousButton = new JButton("<");
+        previousButton.addActionListener(e -> showMonth(month.minusMonths(1)));
+        JButton nextButton = new JButton(">");
+        nextButton.addActionListener(e -> showMonth(month.plusMonths(1)));
+        monthLabel.setFont(monthLabel.getFont().deriveFont(Font.BOLD, 14f));
+        JButton refreshButton = new JButton("Actualiser");
+        refreshButton.addActionListener(e -> update());
+        content.add(previousButton);
+        content.add(monthLabel, "w 140!, center");
+        content.add(nextButton);
+        content.add(new JLabel(), "growx");
+        content.add(refreshButton);
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        table.setFillsViewportHeight(true);
+        content.add(new JScrollPane(table), "span 5, grow");
+        content.add(totalLabel, "span 5");
+
+        add(content, BorderLayout.CENTER);
+        monthLabel.setText(MONTH_FORMAT.format(month));
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        // Prise en compte des pointages corrigés depuis le dernier affichage
+        update();
+    }
+
+    private void showMonth(YearMonth newMonth) {
+        month = newMonth;
+        monthLabel.setText(MONTH_FORMAT.format(month));
+        update();
+    }
+
+    /**
+     * Met à jour les heures du mois affiché en arrière-plan.
+     */
+    private void update() {
+        YearMonth requested = month;
+        TaskExecutor.executeIndeterminate("Calcul des heures " + MONTH_FORMAT.format(requested),
+                "heures-" + requested, TaskExecutor.Priority.INTERACTIVE,
+                () -> {
+                    int recomputed = heures.update(requested);
+                    return new MonthResult(recomputed, heures.getMonth(requested));
+                },
+                result -> {
+                    if (requested.equals(month)) {
+                        tableModel.setMinutes(result.minutes());
+                        totalLabel.setText(result.minutes().size() + " enfants - "
+                                + formatMinutes(result.minutes().values().stream().mapToLong(Long::longValue).sum())
+                                + " facturées");
+                    }
+                    MamiView view = MamiApp.getMamiView();
+                    if (view != null) {
+                        view.setStatusMessage("Heures " + MONTH_FORMAT.format(requested) + " : "
+                                + result.recomputed() + " journées-enfant recalculées");
+                    }
+                }, null);
+    }
+
+    /**
+     * @return une durée au format "h:mm"
+     */
+    static String formatMinutes(long minutes) {
+        return String.format("%d:%02d", minutes / 60, minutes % 60);
+    }
+
+    private record MonthResult(int recomputed, Map<Integer, Long> minutes) {
+    }
+
+    /**
+     * Modèle de la table : une ligne par enfant.
+     */
+    private static final class HeuresTableModel extends AbstractTableModel {
+
+        private static final String[] COLUMNS = {"Enfant", "Famille", "Heures facturées"};
+
+        private final IntFunction<String> childNames;
+        private final IntUnaryOperator families;
+        private int[] childIds = new int[0];
+        private long[] minutes = new long[0];
+
+        HeuresTableModel(IntFunction<String> childNames, IntUnaryOperator families) {
+            this.childNames = childNames;
+            this.families = families;
+        }
+
+        void setMinutes(Map<Integer, Long> minutesByChild) {
+            childIds = new int[minutesByChild.size()];
+            minutes = new long[minutesByChild.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Long> entry : minutesByChild.entrySet()) {
+                childIds[i] = entry.getKey();
+                minutes[i++] = entry.getValue();
+            }
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return childIds.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return switch (column) {
+                case 0 -> childNames.apply(childIds[row]);
+                case 1 -> families.applyAsInt(childIds[row]);
+                default -> minutes[row] / 60.0;
+            };
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return switch (column) {
+                case 0 -> String.class;
+                case 1 -> Integer.class;
+                default -> Double.class;
+            };
+        }
+    }
+}
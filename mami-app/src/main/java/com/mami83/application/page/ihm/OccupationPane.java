@@ -0,0 +1,303 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.page.ihm;
+
+import com.mami83.application.MamiApp;
+import com.mami83.application.MamiView;
+import com.mami83.application.metier.occupation.TauxOccupation;
+import com.mami83.application.util.TaskExecutor;
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * État « Taux d'occupation » du module Administration : taux réservé et
+ * réalisé d'un jour, d'un mois ou d'une année, par créneau d'une demi-heure
+ * et par sous-période (jours du mois, mois de l'année...).
+ * Tous les taux sont lus dans les cumuls du calcul, sans reparcourir les pointages.
+ *
+ * @author Association MAMI
+ */
+public class OccupationPane extends JPanel {
+
+    private static final Color MODULE_COLOR = new Color(212, 172, 13);
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("EEEE d MMMM yyyy", Locale.FRENCH);
+    private static final DateTimeFormatter SHORT_DAY_FORMAT = DateTimeFormatter.ofPattern("EEE d MMM", Locale.FRENCH);
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.FRENCH);
+
+    /**
+     * Période affichée.
+     */
+    private enum Periode {
+        JOUR("Jour"), MOIS("Mois"), ANNEE("Année");
+
+        private final String label;
+
+        Periode(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final TauxOccupation taux;
+    private final TauxTableModel slotModel = new TauxTableModel("Créneau");
+    private final TauxTableModel detailModel = new TauxTableModel("Période");
+    private final JComboBox<Periode> periodeCombo = new JComboBox<>(Periode.values());
+    private final JLabel periodLabel = new JLabel();
+    private final JLabel summaryLabel = new JLabel();
+    private final JLabel queryLabel = new JLabel();
+    private LocalDate date = LocalDate.now();
+    private boolean ready = false;
+
+    /**
+     * Constructeur de l'état.
+     *
+     * @param taux le calcul du taux d'occupation
+     */
+    public OccupationPane(TauxOccupation taux) {
+        this.taux = taux;
+
+        setOpaque(false);
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel content = new JPanel(new MigLayout("insets 20, gap 10 8, fill",
+                "[][][][][grow][]", "[][][][grow, fill][]"));
+        content.setBackground(new Color(250, 250, 250));
+
+        JLabel title = new JLabel("Taux d'occupation");
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 24f));
+        title.setForeground(MODULE_COLOR);
+        content.add(title, "span, wrap 10");
+
+        periodeCombo.setSelectedItem(Periode.MOIS);
+        periodeCombo.addActionListener(e -> showPeriod());
+        JButton previousButton = new JButton("<");
+        previousButton.addActionListener(e -> move(-1));
+        JButton nextButton = new JButton(">");
+        nextButton.addActionListener(e -> move(1));
+        periodLabel.setFont(periodLabel.getFont().deriveFont(Font.BOLD, 14f));
+        JButton refreshButton = new JButton("Actualiser");
+        refreshButton.addActionListener(e -> update());
+        content.add(periodeCombo);
+        content.add(previousButton);
+        content.add(periodLabel, "w 220!, center");
+        content.add(nextButton);
+        content.add(new JLabel(), "growx");
+        content.add(refreshButton, "wrap");
+
+        summaryLabel.setFont(summaryLabel.getFont().deriveFont(Font.BOLD, 13f));
+        content.add(summaryLabel, "span, wrap");
+
+        content.add(createTable(slotModel), "span 4, grow, w 40%");
+        content.add(createTable(detailModel), "span 2, grow, wrap");
+
+        queryLabel.setForeground(Color.GRAY);
+        queryLabel.setFont(queryLabel.getFont().deriveFont(11f));
+        content.add(queryLabel, "span");
+
+        add(content, BorderLayout.CENTER);
+        summaryLabel.setText("Calcul en cours...");
+        while (!TauxOccupation.isOpen(date)) {
+            date = date.minusDays(1);
+        }
+        showPeriod();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        // Prise en compte des pointages du jour et des corrections
+        update();
+    }
+
+    /**
+     * Met à jour les compteurs en arrière-plan, puis affiche la période.
+     */
+    private void update() {
+        TaskExecutor.executeIndeterminate("Calcul du taux d'occupation", "occupation",
+                TaskExecutor.Priority.INTERACTIVE, taux::update,
+                recomputed -> {
+                    ready = true;
+                    showPeriod();
+                    MamiView view = MamiApp.getMamiView();
+                    if (view != null) {
+                        view.setStatusMessage("Taux d'occupation : " + recomputed + " jours recomptés");
+                    }
+                }, null);
+    }
+
+    private void move(int delta) {
+        date = switch ((Periode) periodeCombo.getSelectedItem()) {
+            case JOUR -> {
+                LocalDate next = date.plusDays(delta);
+                while (!TauxOccupation.isOpen(next)) {
+                    next = next.plusDays(delta);
+                }
+                yield next;
+            }
+            case MOIS -> date.plusMonths(delta);
+            case ANNEE -> date.plusYears(delta);
+        };
+        showPeriod();
+    }
+
+    /**
+     * Affiche la période sélectionnée (lectures dans les cumuls, EDT).
+     */
+    private void showPeriod() {
+        Periode periode = (Periode) periodeCombo.getSelectedItem();
+        LocalDate from;
+        LocalDate to;
+        switch (periode) {
+            case JOUR -> {
+                from = date;
+                to = date;
+                periodLabel.setText(DAY_FORMAT.format(date));
+            }
+            case MOIS -> {
+                from = date.withDayOfMonth(1);
+                to = YearMonth.from(date).atEndOfMonth();
+                periodLabel.setText(MONTH_FORMAT.format(date));
+            }
+            default -> {
+                from = date.withDayOfYear(1);
+                to = date.withDayOfYear(date.lengthOfYear());
+                periodLabel.setText(Integer.toString(date.getYear()));
+            }
+        }
+        if (!ready) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        TauxOccupation.Taux total = taux.getTaux(from, to);
+        List<Row> slots = new ArrayList<>(TauxOccupation.CRENEAUX);
+        for (int slot = 0; slot < TauxOccupation.CRENEAUX; slot++) {
+            slots.add(new Row(TauxOccupation.slotStart(slot) + " - " + TauxOccupation.slotStart(slot + 1),
+                    taux.getTaux(from, to, slot)));
+        }
+        List<Row> details = new ArrayList<>();
+        switch (periode) {
+            case JOUR -> {
+                // Semaine du jour affiché
+                LocalDate monday = date.with(DayOfWeek.MONDAY);
+                for (LocalDate day = monday; day.isBefore(monday.plusDays(5)); day = day.plusDays(1)) {
+                    details.add(new Row(SHORT_DAY_FORMAT.format(day), taux.getTaux(day)));
+                }
+            }
+            case MOIS -> {
+                for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                    if (TauxOccupation.isOpen(day)) {
+                        details.add(new Row(SHORT_DAY_FORMAT.format(day), taux.getTaux(day)));
+                    }
+                }
+            }
+            default -> {
+                for (int month = 1; month <= 12; month++) {
+                    YearMonth yearMonth = YearMonth.of(date.getYear(), month);
+                    details.add(new Row(MONTH_FORMAT.format(yearMonth), taux.getTaux(yearMonth)));
+                }
+            }
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+
+        slotModel.setRows(slots);
+        detailModel.setRows(details);
+        summaryLabel.setText(String.format(Locale.FRENCH, "Réservé : %.1f %%   Réalisé : %.1f %%   (%d places)",
+                total.reservedRate() * 100, total.actualRate() * 100, taux.getPlaces()));
+        queryLabel.setText((1 + slots.size() + details.size()) + " taux lus en " + micros + " µs");
+    }
+
+    private static JScrollPane createTable(TauxTableModel model) {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.setDefaultRenderer(Double.class, new PercentRenderer());
+        return new JScrollPane(table);
+    }
+
+    private record Row(String label, TauxOccupation.Taux taux) {
+    }
+
+    /**
+     * Modèle d'une table de taux : libellé, réservé, réalisé, écart.
+     */
+    private static final class TauxTableModel extends AbstractTableModel {
+
+        private final String[] columns;
+        private List<Row> rows = List.of();
+
+        TauxTableModel(String labelColumn) {
+            this.columns = new String[]{labelColumn, "Réservé", "Réalisé", "Écart"};
+        }
+
+        void setRows(List<Row> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Row r = rows.get(row);
+            return switch (column) {
+                case 0 -> r.label();
+                case 1 -> r.taux().reservedRate();
+                case 2 -> r.taux().actualRate();
+                default -> r.taux().actualRate() - r.taux().reservedRate();
+            };
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : Double.class;
+        }
+    }
+
+    /**
+     * Affiche un taux en pourcentage.
+     */
+    private static final class PercentRenderer extends DefaultTableCellRenderer {
+
+        PercentRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        protected void setValue(Object value) {
+            setText(value instanceof Double rate ? String.format(Locale.FRENCH, "%.1f %%", rate * 100) : "");
+        }
+    }
+}
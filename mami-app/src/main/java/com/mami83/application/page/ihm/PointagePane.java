@@ -0,0 +1,183 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.page.ihm;
+
+import com.mami83.application.metier.pointage.PointageStore;
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.function.IntFunction;
+
+/**
+ * Panel du module Enfants : pointage des arrivées et départs du jour.
+ * Affiche les enfants présents et ceux qui ne sont pas encore pointés ;
+ * un double-clic (ou le bouton) pointe l'arrivée ou le départ à l'heure courante.
+ * Les pointages corrigés ici sont repris par la liste des heures.
+ *
+ * @author Association MAMI
+ */
+public class PointagePane extends JPanel {
+
+    private static final Color MODULE_COLOR = new Color(52, 152, 219);
+
+    private final PointageStore store;
+    private final IntFunction<String> childNames;
+
+    private final DefaultListModel<Integer> presentModel = new DefaultListModel<>();
+    private final DefaultListModel<Integer> missingModel = new DefaultListModel<>();
+    private final JList<Integer> presentList = new JList<>(presentModel);
+    private final JList<Integer> missingList = new JList<>(missingModel);
+    private final JLabel presentLabel = new JLabel();
+    private final JLabel missingLabel = new JLabel();
+    private final JLabel queryLabel = new JLabel();
+
+    /**
+     * Constructeur du panel de pointage.
+     *
+     * @param store les pointages
+     * @param childNames le nom de chaque enfant, par identifiant
+     * @param listeHeures ouvre la liste des heures, ou null
+     */
+    public PointagePane(PointageStore store, IntFunction<String> childNames, Runnable listeHeures) {
+        this.store = store;
+        this.childNames = childNames;
+
+        setOpaque(false);
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel content = new JPanel(new MigLayout("wrap 2, insets 20, gap 15 8", "[grow, fill][grow, fill]", "[][][grow, fill][]"));
+        content.setBackground(new Color(250, 250, 250));
+
+        JLabel title = new JLabel("Pointage du " + LocalDate.now());
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 24f));
+        title.setForeground(MODULE_COLOR);
+        content.add(title, "span 2, wrap 10");
+
+        content.add(missingLabel);
+        content.add(presentLabel);
+        content.add(createListScroll(missingList));
+        content.add(createListScroll(presentList));
+
+        JButton arriveButton = new JButton("Pointer l'arrivée");
+        arriveButton.addActionListener(e -> pointerArrivee());
+        JButton departButton = new JButton("Pointer le départ");
+        departButton.addActionListener(e -> pointerDepart());
+        content.add(arriveButton, "growx 0, left");
+        content.add(departButton, "growx 0, left");
+
+        queryLabel.setForeground(Color.GRAY);
+        queryLabel.setFont(queryLabel.getFont().deriveFont(11f));
+        if (listeHeures != null) {
+            JButton heuresButton = new JButton("Liste des heures");
+            heuresButton.addActionListener(e -> listeHeures.run());
+            content.add(queryLabel, "span 2, split 2, growx");
+            content.add(heuresButton, "growx 0, right");
+        } else {
+            content.add(queryLabel, "span 2");
+        }
+
+        missingList.addMouseListener(new DoubleClickAdapter(this::pointerArrivee));
+        presentList.addMouseListener(new DoubleClickAdapter(this::pointerDepart));
+
+        add(content, BorderLayout.CENTER);
+        refresh();
+    }
+
+    /**
+     * Pointe l'arrivée des enfants sélectionnés parmi les non pointés.
+     */
+    private void pointerArrivee() {
+        LocalDate today = LocalDate.now();
+        int minute = currentMinute();
+        for (Integer childId : missingList.getSelectedValuesList()) {
+            try {
+                store.arrive(childId, today, minute);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(this, e.getMessage(), "Pointage", JOptionPane.WARNING_MESSAGE);
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * Pointe le départ des enfants sélectionnés parmi les présents.
+     */
+    private void pointerDepart() {
+        LocalDate today = LocalDate.now();
+        int minute = currentMinute();
+        for (Integer childId : presentList.getSelectedValuesList()) {
+            try {
+                store.depart(childId, today, minute);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(this, e.getMessage(), "Pointage", JOptionPane.WARNING_MESSAGE);
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * Met à jour les deux listes.
+     */
+    private void refresh() {
+        long start = System.nanoTime();
+        int[] present = store.getPresentNow();
+        int[] missing = store.getNotCheckedInToday();
+        long micros = (System.nanoTime() - start) / 1000;
+
+        fill(presentModel, present);
+        fill(missingModel, missing);
+        presentLabel.setText("Présents (" + present.length + ")");
+        missingLabel.setText("Non pointés aujourd'hui (" + missing.length + ")");
+        queryLabel.setText(store.size() + " pointages en mémoire - requêtes en " + micros + " µs");
+    }
+
+    private static void fill(DefaultListModel<Integer> model, int[] childIds) {
+        model.clear();
+        for (int childId : childIds) {
+            model.addElement(childId);
+        }
+    }
+
+    private JScrollPane createListScroll(JList<Integer> list) {
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, childNames.apply((Integer) value),
+                        index, isSelected, cellHasFocus);
+            }
+        });
+        return new JScrollPane(list);
+    }
+
+    private static int currentMinute() {
+        LocalTime now = LocalTime.now();
+        return now.getHour() * 60 + now.getMinute();
+    }
+
+    /**
+     * Exécute une action sur double-clic.
+     */
+    private static final class DoubleClickAdapter extends java.awt.event.MouseAdapter {
+
+        private final Runnable action;
+
+        DoubleClickAdapter(Runnable action) {
+            this.action = action;
+        }
+
+        @Override
+        public void mouseClicked(java.awt.event.MouseEvent e) {
+            if (e.getClickCount() == 2) {
+                action.run();
+            }
+        }
+    }
+}
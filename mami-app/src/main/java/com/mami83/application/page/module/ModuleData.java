@@ -0,0 +1,42 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.page.module;
+
+import java.util.Map;
+
+/**
+ * Données chargées pour un module, par nom de dépendance.
+ *
+ * @author Association MAMI
+ */
+public class ModuleData {
+
+    private final Map<String, Object> values;
+
+    ModuleData(Map<String, Object> values) {
+        this.values = Map.copyOf(values);
+    }
+
+    /**
+     * Retourne une donnée chargée.
+     *
+     * @param name le nom de la donnée
+     * @param <T> le type attendu
+     * @return la donnée, ou null si elle n'a pas été déclarée
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name) {
+        return (T) values.get(name);
+    }
+
+    /**
+     * @param name le nom de la donnée
+     * @return true si la donnée a été chargée
+     */
+    public boolean contains(String name) {
+        return values.containsKey(name);
+    }
+}
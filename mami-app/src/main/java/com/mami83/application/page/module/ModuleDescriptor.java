@@ -0,0 +1,123 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.page.module;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Description d'un module de l'accueil (Enfants, Parents, Salariés...).
+ * Un module déclare les données dont il a besoin et la fabrique de son panel.
+ *
+ * @author Association MAMI
+ */
+public class ModuleDescriptor {
+
+    private final String name;
+    private final String title;
+    private final String buttonText;
+    private final Color color;
+    private final Icon icon;
+    private final boolean accessible;
+    private final Function<ModuleData, JComponent> factory;
+    private final List<String> dependencies = new ArrayList<>();
+
+    /**
+     * Constructeur.
+     *
+     * @param name le nom du panel (ex : "accueilEnfant")
+     * @param title le titre du module (ex : "Module Enfants")
+     * @param buttonText le texte du bouton de navigation
+     * @param color la couleur du module
+     * @param icon l'icône du bouton de navigation
+     * @param accessible true si l'utilisateur a accès au module
+     * @param factory crée le panel à partir des données chargées (appelé sur l'EDT)
+     */
+    public ModuleDescriptor(String name, String title, String buttonText, Color color, Icon icon,
+                            boolean accessible, Function<ModuleData, JComponent> factory) {
+        this.name = name;
+        this.title = title;
+        this.buttonText = buttonText;
+        this.color = color;
+        this.icon = icon;
+        this.accessible = accessible;
+        this.factory = factory;
+    }
+
+    /**
+     * Déclare les données nécessaires au module.
+     *
+     * @param dataNames les noms des données (enregistrées dans le {@link ModuleRegistry})
+     * @return ce descripteur
+     */
+    public ModuleDescriptor dependsOn(String... dataNames) {
+        Collections.addAll(dependencies, dataNames);
+        return this;
+    }
+
+    /**
+     * @return le nom du panel
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return le titre du module
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return le texte du bouton de navigation
+     */
+    public String getButtonText() {
+        return buttonText;
+    }
+
+    /**
+     * @return la couleur du module
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * @return l'icône du bouton de navigation
+     */
+    public Icon getIcon() {
+        return icon;
+    }
+
+    /**
+     * @return true si l'utilisateur a accès au module
+     */
+    public boolean isAccessible() {
+        return accessible;
+    }
+
+    /**
+     * @return les noms des données nécessaires au module
+     */
+    public List<String> getDependencies() {
+        return Collections.unmodifiableList(dependencies);
+    }
+
+    /**
+     * Crée le panel du module (EDT).
+     *
+     * @param data les données chargées
+     * @return le panel
+     */
+    JComponent createPanel(ModuleData data) {
+        return factory.apply(data);
+    }
+}
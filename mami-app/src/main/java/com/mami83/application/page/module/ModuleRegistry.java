@@ -0,0 +1,320 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.page.module;
+
+import com.mami83.application.util.TaskExecutor;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Registre des modules de l'accueil.
+ * <p>
+ * Chaque module déclare ses données et la fabrique de son panel. Après la
+ * connexion, quand l'application est inactive, les premiers modules
+ * accessibles sont préchargés en tâche de fond : un clic sur la tuile
+ * affiche alors directement le panel prêt. Les données sont chargées une
+ * seule fois et partagées entre les modules qui en dépendent.
+ *
+ * @author Association MAMI
+ */
+public class ModuleRegistry {
+
+    /** Intervalle de vérification de l'inactivité avant préchargement */
+    private static final int IDLE_CHECK_MS = 1500;
+
+    private final Map<String, ModuleDescriptor> modules = new LinkedHashMap<>();
+    private final Map<String, Callable<?>> dataLoaders = new HashMap<>();
+
+    // Données chargées ou en cours de chargement, partagées entre modules
+    private final Map<String, CompletableFuture<Object>> data = new ConcurrentHashMap<>();
+
+    // Panels préchargés, pas encore affichés (EDT uniquement)
+    private final Map<String, CompletableFuture<JComponent>> prefetched = new HashMap<>();
+
+    private Timer idleTimer;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong coldCount = new AtomicLong();
+
+    /**
+     * Enregistre un module. L'ordre d'enregistrement est l'ordre de préchargement.
+     *
+     * @param module le module
+     * @return le module
+     */
+    public ModuleDescriptor register(ModuleDescriptor module) {
+        modules.put(module.getName(), module);
+        return module;
+    }
+
+    /**
+     * Enregistre le chargement d'une donnée utilisée par un ou plusieurs modules.
+     *
+     * @param name le nom de la donnée
+     * @param loader le chargement (exécuté hors EDT)
+     */
+    public void registerData(String name, Callable<?> loader) {
+        dataLoaders.put(name, loader);
+    }
+
+    /**
+     * Oublie une donnée chargée : elle sera rechargée à la prochaine ouverture.
+     *
+     * @param name le nom de la donnée
+     */
+    public void invalidateData(String name) {
+        data.remove(name);
+    }
+
+    /**
+     * @param name le nom du module
+     * @return le module, ou null s'il n'est pas enregistré
+     */
+    public ModuleDescriptor getModule(String name) {
+        return modules.get(name);
+    }
+
+    // ==================== OUVERTURE ====================
+
+    /**
+     * Ouvre un module (EDT).
+     * <p>
+     * Si le panel a été préchargé, il est passé immédiatement à {@code onReady}.
+     * Sinon les données manquantes sont chargées en parallèle avec progression
+     * dans la barre de statut (un préchargement en cours est rejoint, pas relancé),
+     * puis le panel est créé sur l'EDT.
+     *
+     * @param name le nom du module
+     * @param onReady reçoit le panel prêt (EDT)
+     * @param onError reçoit l'erreur de chargement (EDT)
+     */
+    public void open(String name, Consumer<JComponent> onReady, Consumer<Exception> onError) {
+        ModuleDescriptor module = modules.get(name);
+        if (module == null) {
+            onError.accept(new IllegalArgumentException("Module inconnu: " + name));
+            return;
+        }
+
+        // Le panel préchargé n'est utilisable qu'une fois
+        CompletableFuture<JComponent> ready = prefetched.remove(name);
+        if (ready != null && ready.isDone() && !ready.isCompletedExceptionally()) {
+            hitCount.incrementAndGet();
+            onReady.accept(ready.join());
+            return;
+        }
+        if (ready != null) {
+            // Préchargement en cours : ses données sont rejointes ci-dessous
+            ready.cancel(false);
+            waitCount.incrementAndGet();
+        } else {
+            coldCount.incrementAndGet();
+        }
+
+        // Un double-clic réutilise le chargement en cours (clé = nom du module)
+        TaskExecutor.executeComposite("Chargement " + module.getTitle(), name,
+                TaskExecutor.Priority.INTERACTIVE, scope -> {
+            for (String dependency : module.getDependencies()) {
+                scope.fork(dependency, reporter -> loadData(dependency));
+            }
+            scope.join();
+            return collectData(module);
+        }, moduleData -> onReady.accept(module.createPanel(moduleData)), onError);
+    }
+
+    // ==================== PRÉCHARGEMENT ====================
+
+    /**
+     * Précharge les premiers modules dès que l'application est inactive (EDT).
+     * Seuls les modules accessibles et pas encore affichés sont préchargés.
+     *
+     * @param maxModules le nombre maximal de modules à précharger
+     * @param idle indique si l'application est inactive (aucune tâche en cours...)
+     * @param alreadyOpen indique si un module est déjà affiché
+     */
+    public void prefetchWhenIdle(int maxModules, BooleanSupplier idle, Predicate<String> alreadyOpen) {
+        cancelPrefetch();
+        idleTimer = new Timer(IDLE_CHECK_MS, e -> {
+            if (!idle.getAsBoolean()) {
+                return;
+            }
+            ((Timer) e.getSource()).stop();
+            int count = 0;
+            for (ModuleDescriptor module : modules.values()) {
+                if (count >= maxModules) {
+                    break;
+                }
+                if (module.isAccessible() && !alreadyOpen.test(module.getName())) {
+                    prefetch(module);
+                    count++;
+                }
+            }
+        });
+        idleTimer.start();
+    }
+
+    /**
+     * Abandonne le préchargement prévu et libère les panels préchargés (EDT).
+     * Les données déjà chargées sont conservées.
+     */
+    public void cancelPrefetch() {
+        if (idleTimer != null) {
+            idleTimer.stop();
+            idleTimer = null;
+        }
+        prefetched.values().forEach(f -> f.cancel(false));
+        prefetched.clear();
+    }
+
+    /**
+     * Précharge un module : données en tâche de fond silencieuse, puis panel sur l'EDT.
+     */
+    private void prefetch(ModuleDescriptor module) {
+        if (prefetched.containsKey(module.getName())) {
+            return;
+        }
+        CompletableFuture<JComponent> ready = new CompletableFuture<>();
+        prefetched.put(module.getName(), ready);
+
+        TaskExecutor.executeInBackground("prefetch:" + module.getName(), () -> {
+            for (String dependency : module.getDependencies()) {
+                if (ready.isDone()) {
+                    // Ouvert entre-temps ou abandonné
+                    return null;
+                }
+                loadData(dependency);
+            }
+            return collectData(module);
+        }).future().whenComplete((moduleData, failure) -> SwingUtilities.invokeLater(() -> {
+            if (ready.isDone()) {
+                return;
+            }
+            if (failure != null || moduleData == null) {
+                // Échec silencieux : le module sera chargé normalement au clic
+                prefetched.remove(module.getName(), ready);
+                ready.completeExceptionally(failure != null ? failure : new IllegalStateException());
+                return;
+            }
+            try {
+                ready.complete(module.createPanel(moduleData));
+            } catch (RuntimeException ex) {
+                prefetched.remove(module.getName(), ready);
+                ready.completeExceptionally(ex);
+            }
+        }));
+    }
+
+    // ==================== DONNÉES ====================
+
+    /**
+     * Retourne une donnée, en la chargeant dans le thread courant si personne
+     * ne l'a encore demandée, ou en attendant le chargement déjà en cours.
+     */
+    private Object loadData(String name) throws Exception {
+        Callable<?> loader = dataLoaders.get(name);
+        if (loader == null) {
+            throw new IllegalStateException("Donnée non enregistrée: " + name);
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> current = data.putIfAbsent(name, mine);
+        if (current != null) {
+            try {
+                return current.get();
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+
+        try {
+            Object value = loader.call();
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            // Ne pas garder l'échec : la donnée sera rechargée au prochain essai
+            data.remove(name, mine);
+            mine.completeExceptionally(t);
+            throw unwrap(t);
+        }
+    }
+
+    private ModuleData collectData(ModuleDescriptor module) {
+        Map<String, Object> values = new HashMap<>();
+        for (String dependency : module.getDependencies()) {
+            CompletableFuture<Object> value = data.get(dependency);
+            if (value == null || !value.isDone() || value.isCompletedExceptionally()) {
+                throw new IllegalStateException("Donnée non chargée: " + dependency);
+            }
+            Object loaded = value.join();
+            if (loaded != null) {
+                values.put(dependency, loaded);
+            }
+        }
+        return new ModuleData(values);
+    }
+
+    private static Exception unwrap(Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        return cause instanceof Exception e ? e : new ExecutionException(cause);
+    }
+
+    // ==================== STATISTIQUES ====================
+
+    /**
+     * @return le nombre d'ouvertures servies par un panel préchargé
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return le nombre d'ouvertures ayant rejoint un préchargement en cours
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * @return le nombre d'ouvertures sans préchargement
+     */
+    public long getColdCount() {
+        return coldCount.get();
+    }
+
+    /**
+     * @return les noms des modules préchargés prêts à être affichés (EDT)
+     */
+    public List<String> getPrefetchedModules() {
+        List<String> names = new ArrayList<>();
+        prefetched.forEach((name, ready) -> {
+            if (ready.isDone() && !ready.isCompletedExceptionally()) {
+                names.add(name);
+            }
+        });
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return "ModuleRegistry[modules=" + modules.size() + ", data=" + data.size()
+                + ", hits=" + hitCount.get() + ", waits=" + waitCount.get()
+                + ", cold=" + coldCount.get() + "]";
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.util;
+
+import javax.swing.*;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Surveillance de la réactivité de l'EDT.
+ * <p>
+ * Un battement de cœur poste régulièrement un événement sur l'EDT et mesure
+ * le délai avant son exécution : c'est le temps qu'aurait attendu un clic
+ * de l'utilisateur. Les délais sont classés dans un histogramme. Si un
+ * battement attend plus que le seuil, la pile de l'EDT est capturée (une
+ * fois par blocage) pour identifier le traitement fautif.
+ * <p>
+ * Propriétés système : {@code mami.edt.watchdog} (défaut true) et
+ * {@code mami.edt.hangThresholdMs} (défaut 500).
+ *
+ * @author Association MAMI
+ */
+public final class EdtWatchdog {
+
+    /** Intervalle entre deux battements */
+    private static final int HEARTBEAT_MS = 100;
+
+    /** Seuil de blocage par défaut */
+    private static final long DEFAULT_THRESHOLD_MS = 500;
+
+    /** Bornes supérieures (exclues) des classes de l'histogramme, en ms ; la dernière classe est ouverte */
+    private static final long[] BUCKET_LIMITS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000};
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static volatile EdtWatchdog instance;
+
+    private final long thresholdNanos;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_LIMITS_MS.length + 1);
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong hangCount = new AtomicLong();
+
+    // Battement en attente sur l'EDT (0 si aucun)
+    private volatile long pendingSinceNanos = 0;
+    private volatile boolean hangReported = false;
+    private volatile Thread edt;
+    private volatile String lastHangReport;
+
+    private EdtWatchdog(long thresholdMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mami-edt-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Démarre la surveillance (sans effet si elle est déjà démarrée ou désactivée).
+     *
+     * @return la surveillance, ou null si elle est désactivée
+     */
+    public static synchronized EdtWatchdog install() {
+        if (instance == null && !"false".equals(System.getProperty("mami.edt.watchdog"))) {
+            EdtWatchdog watchdog = new EdtWatchdog(
+                    Long.getLong("mami.edt.hangThresholdMs", DEFAULT_THRESHOLD_MS));
+            watchdog.scheduler.scheduleWithFixedDelay(watchdog::tick,
+                    HEARTBEAT_MS, HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+            instance = watchdog;
+        }
+        return instance;
+    }
+
+    /**
+     * @return la surveillance installée, ou null
+     */
+    public static EdtWatchdog getInstance() {
+        return instance;
+    }
+
+    // ==================== BATTEMENT ====================
+
+    /**
+     * Poste un battement si le précédent a été traité, sinon vérifie le blocage
+     * (thread de surveillance).
+     */
+    private void tick() {
+        long since = pendingSinceNanos;
+        if (since == 0) {
+            long posted = System.nanoTime();
+            pendingSinceNanos = posted;
+            SwingUtilities.invokeLater(() -> beat(posted));
+            return;
+        }
+
+        long waited = System.nanoTime() - since;
+        if (waited >= thresholdNanos && !hangReported) {
+            hangReported = true;
+            hangCount.incrementAndGet();
+            reportHang(waited);
+        }
+    }
+
+    /**
+     * Exécution du battement sur l'EDT : enregistre le délai d'attente.
+     */
+    private void beat(long postedNanos) {
+        long latency = System.nanoTime() - postedNanos;
+        edt = Thread.currentThread();
+        pendingSinceNanos = 0;
+        hangReported = false;
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(latency);
+        int bucket = 0;
+        while (bucket < BUCKET_LIMITS_MS.length && millis >= BUCKET_LIMITS_MS[bucket]) {
+            bucket++;
+        }
+        histogram.incrementAndGet(bucket);
+        sampleCount.incrementAndGet();
+        totalNanos.addAndGet(latency);
+        maxNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Capture et affiche la pile de l'EDT bloqué.
+     */
+    private void reportHang(long waitedNanos) {
+        Thread thread = edt;
+        StringBuilder report = new StringBuilder();
+        report.append(LocalTime.now().format(TIME_FORMAT))
+                .append(" - EDT bloqué depuis ")
+                .append(TimeUnit.NANOSECONDS.toMillis(waitedNanos)).append(" ms");
+        if (thread != null) {
+            report.append(" (").append(thread.getName()).append(")\n");
+            for (StackTraceElement element : thread.getStackTrace()) {
+                report.append("\tat ").append(element).append('\n');
+            }
+        } else {
+            report.append(" (EDT pas encore démarré)\n");
+        }
+        lastHangReport = report.toString();
+        System.err.print("EdtWatchdog: " + lastHangReport);
+    }
+
+    // ==================== STATISTIQUES ====================
+
+    /**
+     * @return les bornes supérieures des classes de l'histogramme (ms), la dernière classe étant ouverte
+     */
+    public static long[] getBucketLimits() {
+        return BUCKET_LIMITS_MS.clone();
+    }
+
+    /**
+     * @return le nombre de battements par classe de délai
+     */
+    public long[] getHistogram() {
+        long[] counts = new long[histogram.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Estime un centile à partir de l'histogramme (borne supérieure de la classe,
+     * limitée au maximum observé).
+     *
+     * @param percentile le centile (ex : 99)
+     * @return le délai estimé (ms), ou -1 sans mesure
+     */
+    public long getPercentileMillis(double percentile) {
+        long[] counts = getHistogram();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < BUCKET_LIMITS_MS.length ? Math.min(BUCKET_LIMITS_MS[i], getMaxMillis()) : getMaxMillis();
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * @return le nombre de battements mesurés
+     */
+    public long getSampleCount() {
+        return sampleCount.get();
+    }
+
+    /**
+     * @return le délai moyen (ms)
+     */
+    public double getAverageMillis() {
+        long count = sampleCount.get();
+        return count > 0 ? totalNanos.get() / 1_000_000.0 / count : 0;
+    }
+
+    /**
+     * @return le délai maximal observé (ms)
+     */
+    public long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    /**
+     * @return le nombre de blocages au-delà du seuil
+     */
+    public long getHangCount() {
+        return hangCount.get();
+    }
+
+    /**
+     * @return le seuil de blocage (ms)
+     */
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * @return le rapport du dernier blocage (pile de l'EDT), ou null
+     */
+    public String getLastHangReport() {
+        return lastHangReport;
+    }
+
+    /**
+     * Remet les statistiques à zéro.
+     */
+    public void reset() {
+        for (int i = 0; i < histogram.length(); i++) {
+            histogram.set(i, 0);
+        }
+        sampleCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+        hangCount.set(0);
+        lastHangReport = null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EdtWatchdog[battements=%d, moyenne=%.1f ms, p99=%d ms, max=%d ms, blocages=%d]",
+                getSampleCount(), getAverageMillis(), getPercentileMillis(99), getMaxMillis(), getHangCount());
+    }
+}
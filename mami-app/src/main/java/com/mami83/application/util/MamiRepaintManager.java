@@ -0,0 +1,337 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gestionnaire de repaint de l'application.
+ * <p>
+ * Statistiques : pour chaque classe de composant, nombre de demandes de
+ * repaint, nombre de peintures effectives (demandes regroupées par cycle),
+ * surface repeinte et nombre de repaints de toute la fenêtre, avec le code
+ * appelant qui les a provoqués.
+ * <p>
+ * Regroupement : la hiérarchie est translucide (fond, cardPanel, panels des
+ * modules et boutons sont non opaques), et Swing repeint de toute façon à
+ * partir du premier ancêtre opaque. La zone demandée par un composant non
+ * opaque est donc directement reportée sur cet ancêtre : toutes les zones
+ * d'un même cycle sont fusionnées en une seule peinture, limitée à la
+ * partie visible.
+ * <p>
+ * Plafond : les repaints de toute la fenêtre sont limités à
+ * {@code mami.repaint.maxFullPerSecond} par seconde (défaut 30, 0 pour ne
+ * pas limiter) ; les demandes en excès sont différées et fusionnées, jamais
+ * perdues.
+ * <p>
+ * Propriétés système : {@code mami.repaint.stats} (défaut true),
+ * {@code mami.repaint.merge} (défaut true) et {@code mami.repaint.maxFullPerSecond}.
+ *
+ * @author Association MAMI
+ */
+public final class MamiRepaintManager extends RepaintManager {
+
+    /** Part de la fenêtre au-delà de laquelle un repaint est considéré comme complet */
+    private static final double FULL_WINDOW_RATIO = 0.9;
+
+    /** Plafond par défaut des repaints de toute la fenêtre */
+    private static final int DEFAULT_MAX_FULL_PER_SECOND = 30;
+
+    /** Nombre de sources de repaints complets conservées */
+    private static final int MAX_SOURCES = 50;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static volatile MamiRepaintManager instance;
+
+    private final boolean merge;
+    private final long fullIntervalNanos;
+
+    private final Map<Class<?>, Stats> stats = new ConcurrentHashMap<>();
+    private final Set<Class<?>> pending = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> fullWindowSources = new ConcurrentHashMap<>();
+
+    private final AtomicLong paintCycleCount = new AtomicLong();
+    private final AtomicLong paintNanos = new AtomicLong();
+    private final AtomicLong mergedCount = new AtomicLong();
+    private final AtomicLong cappedCount = new AtomicLong();
+
+    // Plafond des repaints complets
+    private volatile boolean fullWindowPending = false;
+    private volatile long lastFullPaintNanos;
+    private final AtomicBoolean deferred = new AtomicBoolean();
+    private volatile JRootPane deferredRoot;
+
+    private MamiRepaintManager(boolean merge, int maxFullPerSecond) {
+        this.merge = merge;
+        this.fullIntervalNanos = maxFullPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxFullPerSecond : 0;
+        this.lastFullPaintNanos = System.nanoTime() - fullIntervalNanos;
+    }
+
+    /**
+     * Installe le gestionnaire de repaint (sans effet s'il est déjà installé ou désactivé).
+     *
+     * @return le gestionnaire, ou null s'il est désactivé
+     */
+    public static synchronized MamiRepaintManager install() {
+        if (instance == null && !"false".equals(System.getProperty("mami.repaint.stats"))) {
+            MamiRepaintManager manager = new MamiRepaintManager(
+                    !"false".equals(System.getProperty("mami.repaint.merge")),
+                    Integer.getInteger("mami.repaint.maxFullPerSecond", DEFAULT_MAX_FULL_PER_SECOND));
+            RepaintManager.setCurrentManager(manager);
+            instance = manager;
+        }
+        return instance;
+    }
+
+    /**
+     * @return le gestionnaire installé, ou null
+     */
+    public static MamiRepaintManager getInstance() {
+        return instance;
+    }
+
+    // ==================== DEMANDES ====================
+
+    @Override
+    public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+        if (c == null || w <= 0 || h <= 0 || !c.isShowing()) {
+            super.addDirtyRegion(c, x, y, w, h);
+            return;
+        }
+        Stats componentStats = stats.computeIfAbsent(c.getClass(), k -> new Stats());
+        componentStats.requests.incrementAndGet();
+        pending.add(c.getClass());
+
+        // Remontée jusqu'au JRootPane : premier ancêtre opaque et partie visible de la zone
+        Rectangle region = new Rectangle(x, y, w, h).intersection(new Rectangle(c.getWidth(), c.getHeight()));
+        JComponent target = null;
+        Rectangle targetRegion = null;
+        Component component = c;
+        while (!region.isEmpty()) {
+            if (target == null && component instanceof JComponent jc && jc.isOpaque()) {
+                target = jc;
+                targetRegion = new Rectangle(region);
+            }
+            Container parent = component.getParent();
+            if (component instanceof JRootPane || !(parent instanceof JComponent)) {
+                break;
+            }
+            region.translate(component.getX(), component.getY());
+            region = region.intersection(new Rectangle(parent.getWidth(), parent.getHeight()));
+            component = parent;
+        }
+        if (region.isEmpty()) {
+            // Zone entièrement masquée par les ancêtres : rien à repeindre
+            return;
+        }
+        componentStats.pixels.addAndGet((long) region.width * region.height);
+
+        if (component instanceof JRootPane rootPane
+                && region.width * (double) region.height >= FULL_WINDOW_RATIO * rootPane.getWidth() * rootPane.getHeight()) {
+            componentStats.fullWindow.incrementAndGet();
+            recordFullWindowSource(c);
+            if (fullIntervalNanos > 0 && System.nanoTime() - lastFullPaintNanos < fullIntervalNanos) {
+                deferFullWindow(rootPane);
+                return;
+            }
+            fullWindowPending = true;
+        }
+
+        if (merge && target != null && target != c) {
+            mergedCount.incrementAndGet();
+            super.addDirtyRegion(target, targetRegion.x, targetRegion.y, targetRegion.width, targetRegion.height);
+        } else {
+            super.addDirtyRegion(c, x, y, w, h);
+        }
+    }
+
+    /**
+     * Identifie le code applicatif à l'origine d'un repaint complet
+     * (première méthode hors JDK et FlatLaf).
+     */
+    private void recordFullWindowSource(JComponent c) {
+        String caller = STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !isFrameworkClass(frame.getClassName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("Swing"));
+        String source = c.getClass().getName() + " <- " + caller;
+        AtomicLong count = fullWindowSources.get(source);
+        if (count == null && fullWindowSources.size() >= MAX_SOURCES) {
+            source = "(autres)";
+        }
+        fullWindowSources.computeIfAbsent(source, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static boolean isFrameworkClass(String className) {
+        return className.startsWith("java.") || className.startsWith("javax.")
+                || className.startsWith("sun.") || className.startsWith("jdk.")
+                || className.startsWith("com.formdev.")
+                || className.equals(MamiRepaintManager.class.getName());
+    }
+
+    /**
+     * Diffère un repaint complet à la fin de l'intervalle minimal ;
+     * les demandes suivantes sont fusionnées avec lui.
+     */
+    private void deferFullWindow(JRootPane rootPane) {
+        cappedCount.incrementAndGet();
+        deferredRoot = rootPane;
+        if (!deferred.compareAndSet(false, true)) {
+            return;
+        }
+        long remainingNanos = fullIntervalNanos - (System.nanoTime() - lastFullPaintNanos);
+        Timer timer = new Timer((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos)), e -> {
+            deferred.set(false);
+            JRootPane root = deferredRoot;
+            if (root != null) {
+                fullWindowPending = true;
+                super.addDirtyRegion(root, 0, 0, root.getWidth(), root.getHeight());
+            }
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    // ==================== PEINTURE ====================
+
+    @Override
+    public void paintDirtyRegions() {
+        // Une peinture par classe ayant demandé un repaint depuis le cycle précédent
+        for (Iterator<Class<?>> it = pending.iterator(); it.hasNext(); ) {
+            Class<?> type = it.next();
+            it.remove();
+            Stats componentStats = stats.get(type);
+            if (componentStats != null) {
+                componentStats.paints.incrementAndGet();
+            }
+        }
+        boolean full = fullWindowPending;
+        fullWindowPending = false;
+
+        long start = System.nanoTime();
+        super.paintDirtyRegions();
+        long end = System.nanoTime();
+        paintCycleCount.incrementAndGet();
+        paintNanos.addAndGet(end - start);
+        if (full) {
+            lastFullPaintNanos = end;
+        }
+    }
+
+    // ==================== STATISTIQUES ====================
+
+    /**
+     * Statistiques d'une classe de composant.
+     *
+     * @param component le nom de la classe
+     * @param requests le nombre de demandes de repaint
+     * @param paints le nombre de peintures effectives
+     * @param fullWindow le nombre de repaints de toute la fenêtre
+     * @param pixels la surface visible demandée (pixels)
+     */
+    public record Summary(String component, long requests, long paints, long fullWindow, long pixels) {
+    }
+
+    /**
+     * @return les statistiques par classe, de la plus grande surface repeinte à la plus petite
+     */
+    public List<Summary> getSummaries() {
+        List<Summary> summaries = new ArrayList<>();
+        stats.forEach((type, s) -> summaries.add(new Summary(type.getName(),
+                s.requests.get(), s.paints.get(), s.fullWindow.get(), s.pixels.get())));
+        summaries.sort(Comparator.comparingLong(Summary::pixels).reversed());
+        return summaries;
+    }
+
+    /**
+     * @return les sources des repaints complets (composant et code appelant), des plus fréquentes aux moins fréquentes
+     */
+    public Map<String, Long> getFullWindowSources() {
+        Map<String, Long> sources = new LinkedHashMap<>();
+        fullWindowSources.entrySet().stream()
+                .sorted(Map.Entry.<String, AtomicLong>comparingByValue(
+                        Comparator.comparingLong(AtomicLong::get)).reversed())
+                .forEach(entry -> sources.put(entry.getKey(), entry.getValue().get()));
+        return sources;
+    }
+
+    /**
+     * @return le nombre de cycles de peinture
+     */
+    public long getPaintCycleCount() {
+        return paintCycleCount.get();
+    }
+
+    /**
+     * @return la durée moyenne d'un cycle de peinture (ms)
+     */
+    public double getAveragePaintMillis() {
+        long cycles = paintCycleCount.get();
+        return cycles > 0 ? paintNanos.get() / 1_000_000.0 / cycles : 0;
+    }
+
+    /**
+     * @return le nombre de demandes reportées sur un ancêtre opaque
+     */
+    public long getMergedCount() {
+        return mergedCount.get();
+    }
+
+    /**
+     * @return le nombre de repaints complets différés par le plafond
+     */
+    public long getCappedCount() {
+        return cappedCount.get();
+    }
+
+    /**
+     * Remet les statistiques à zéro.
+     */
+    public void reset() {
+        stats.clear();
+        fullWindowSources.clear();
+        paintCycleCount.set(0);
+        paintNanos.set(0);
+        mergedCount.set(0);
+        cappedCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        long requests = 0;
+        long fullWindow = 0;
+        for (Stats s : stats.values()) {
+            requests += s.requests.get();
+            fullWindow += s.fullWindow.get();
+        }
+        return String.format("MamiRepaintManager[demandes=%d, cycles=%d, moyenne=%.2f ms, fusionnées=%d, complets=%d, différés=%d]",
+                requests, getPaintCycleCount(), getAveragePaintMillis(), getMergedCount(), fullWindow, getCappedCount());
+    }
+
+    /**
+     * Compteurs d'une classe de composant.
+     */
+    private static final class Stats {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong paints = new AtomicLong();
+        final AtomicLong fullWindow = new AtomicLong();
+        final AtomicLong pixels = new AtomicLong();
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.util;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache central des images livrées dans les ressources.
+ * <p>
+ * Les icônes existent en plusieurs tailles (16, 24, 32, 48, 64, 96, 128),
+ * éventuellement en variante "_sans" (ex : {@code ninio/Factures32.png},
+ * {@code ninio/Factures32_sans.png}). Le cache choisit la variante la plus
+ * adaptée à la taille demandée et à l'échelle HiDPI, décode chaque fichier
+ * une seule fois et partage l'instance obtenue.
+ * <p>
+ * Les images sont conservées en LRU dans la limite d'un budget mémoire
+ * (propriété système {@code mami.imageCache.maxBytes}, 32 Mo par défaut).
+ * Les images évincées restent accessibles par référence faible tant que
+ * le ramasse-miettes ne les a pas récupérées.
+ *
+ * @author Association MAMI
+ */
+public class ResourceImageCache {
+
+    /** Tailles des variantes livrées dans les ressources */
+    private static final int[] VARIANT_SIZES = {16, 24, 32, 48, 64, 96, 128};
+
+    /** Suffixe des variantes sans texte */
+    private static final String SANS_SUFFIX = "_sans";
+
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final ResourceImageCache DEFAULT = new ResourceImageCache(
+            Long.getLong("mami.imageCache.maxBytes", DEFAULT_MAX_BYTES));
+
+    // Images conservées (ordre d'accès, la plus ancienne en premier)
+    private final LinkedHashMap<String, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true);
+
+    // Images évincées, récupérables tant que le GC ne les a pas libérées
+    private final Map<String, SoftReference<BufferedImage>> evicted = new HashMap<>();
+
+    // Tailles disponibles par nom de base (évite de sonder les ressources à chaque appel)
+    private final Map<String, int[]> availableSizes = new HashMap<>();
+
+    private long maxBytes;
+    private long currentBytes = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong softHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Constructeur avec budget mémoire.
+     *
+     * @param maxBytes le nombre maximal d'octets conservés en mémoire
+     */
+    public ResourceImageCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * @return le cache partagé de l'application
+     */
+    public static ResourceImageCache getDefault() {
+        return DEFAULT;
+    }
+
+    // ==================== ACCÈS AUX IMAGES ====================
+
+    /**
+     * Retourne l'image correspondant exactement à un chemin de ressource.
+     *
+     * @param resourcePath le chemin de la ressource (ex : "/images/logo_mami.png")
+     * @return l'image partagée, ou null si la ressource est absente ou illisible
+     */
+    public BufferedImage getImage(String resourcePath) {
+        synchronized (this) {
+            BufferedImage image = images.get(resourcePath);
+            if (image != null) {
+                hitCount.incrementAndGet();
+                return image;
+            }
+
+            SoftReference<BufferedImage> ref = evicted.remove(resourcePath);
+            image = ref != null ? ref.get() : null;
+            if (image != null) {
+                softHitCount.incrementAndGet();
+                store(resourcePath, image);
+                return image;
+            }
+        }
+
+        // Décodage hors verrou pour ne pas bloquer les autres appelants
+        missCount.incrementAndGet();
+        BufferedImage image = decode(resourcePath);
+        if (image == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            // Un autre thread a pu décoder la même image entre-temps
+            BufferedImage existing = images.get(resourcePath);
+            if (existing != null) {
+                return existing;
+            }
+            store(resourcePath, image);
+            return image;
+        }
+    }
+
+    /**
+     * Retourne la meilleure variante d'une icône pour une taille donnée.
+     *
+     * @param baseName le chemin sans taille ni extension (ex : "/images/ninio/Factures")
+     * @param size la taille logique souhaitée en pixels
+     * @return l'image partagée, ou null si aucune variante n'existe
+     */
+    public BufferedImage getImage(String baseName, int size) {
+        return getImage(baseName, size, 1.0, false);
+    }
+
+    /**
+     * Retourne la meilleure variante d'une icône pour une taille et une échelle données.
+     * La plus petite variante couvrant {@code size * scale} pixels est retenue,
+     * à défaut la plus grande disponible. Si la variante "_sans" (ou normale)
+     * n'existe dans aucune taille, l'autre variante est utilisée.
+     *
+     * @param baseName le chemin sans taille ni extension (ex : "/images/ninio/Factures")
+     * @param size la taille logique souhaitée en pixels
+     * @param scale l'échelle HiDPI de l'écran (1.0, 1.25, 2.0...)
+     * @param sans true pour la variante "_sans"
+     * @return l'image partagée, ou null si aucune variante n'existe
+     */
+    public BufferedImage getImage(String baseName, int size, double scale, boolean sans) {
+        String suffix = sans ? SANS_SUFFIX : "";
+        int target = (int) Math.ceil(size * scale);
+        int variant = selectVariant(getAvailableSizes(baseName, suffix), target);
+        if (variant < 0) {
+            suffix = sans ? "" : SANS_SUFFIX;
+            variant = selectVariant(getAvailableSizes(baseName, suffix), target);
+            if (variant < 0) {
+                return null;
+            }
+        }
+        return getImage(variantPath(baseName, variant, suffix));
+    }
+
+    /**
+     * Retourne une icône adaptée à l'échelle de l'écran principal.
+     * Sur un écran HiDPI, l'icône embarque aussi la variante haute résolution.
+     *
+     * @param baseName le chemin sans taille ni extension (ex : "/images/ninio/Factures")
+     * @param size la taille logique souhaitée en pixels
+     * @return l'icône, ou null si aucune variante n'existe
+     */
+    public Icon getIcon(String baseName, int size) {
+        return getIcon(baseName, size, false);
+    }
+
+    /**
+     * Retourne une icône adaptée à l'échelle de l'écran principal.
+     *
+     * @param baseName le chemin sans taille ni extension
+     * @param size la taille logique souhaitée en pixels
+     * @param sans true pour la variante "_sans"
+     * @return l'icône, ou null si aucune variante n'existe
+     */
+    public Icon getIcon(String baseName, int size, boolean sans) {
+        BufferedImage base = getImage(baseName, size, 1.0, sans);
+        if (base == null) {
+            return null;
+        }
+
+        double scale = getScreenScale();
+        if (scale > 1.0) {
+            BufferedImage hiDpi = getImage(baseName, size, scale, sans);
+            if (hiDpi != null && hiDpi != base) {
+                return new ImageIcon(new BaseMultiResolutionImage(base, hiDpi));
+            }
+        }
+        return new ImageIcon(base);
+    }
+
+    // ==================== BUDGET ET STATISTIQUES ====================
+
+    /**
+     * Définit le budget mémoire et évince si nécessaire.
+     *
+     * @param maxBytes le nombre maximal d'octets conservés en mémoire
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        evictIfNeeded();
+    }
+
+    /**
+     * @return le budget mémoire en octets
+     */
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return le nombre d'octets actuellement conservés
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * @return le nombre d'images actuellement conservées
+     */
+    public synchronized int getSize() {
+        return images.size();
+    }
+
+    /**
+     * @return le nombre d'accès servis depuis le cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return le nombre d'accès servis par une image évincée encore en mémoire
+     */
+    public long getSoftHitCount() {
+        return softHitCount.get();
+    }
+
+    /**
+     * @return le nombre d'accès ayant nécessité un décodage
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return le nombre d'images évincées pour respecter le budget
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Vide le cache (les compteurs sont conservés).
+     */
+    public synchronized void clear() {
+        images.clear();
+        evicted.clear();
+        currentBytes = 0;
+    }
+
+    @Override
+    public String toString() {
+        synchronized (this) {
+            return String.format("ResourceImageCache[%d images, %d/%d Ko, hits=%d, softHits=%d, misses=%d, evictions=%d]",
+                    images.size(), currentBytes / 1024, maxBytes / 1024,
+                    hitCount.get(), softHitCount.get(), missCount.get(), evictionCount.get());
+        }
+    }
+
+    // ==================== INTERNE ====================
+
+    /**
+     * Enregistre une image et évince les plus anciennes si le budget est dépassé.
+     */
+    private void store(String key, BufferedImage image) {
+        images.put(key, image);
+        currentBytes += sizeOf(image);
+        evictIfNeeded();
+    }
+
+    /**
+     * Évince les images les moins récemment utilisées jusqu'à respecter le budget.
+     * L'image la plus récente est toujours conservée.
+     */
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, BufferedImage>> it = images.entrySet().iterator();
+        while (currentBytes > maxBytes && images.size() > 1 && it.hasNext()) {
+            Map.Entry<String, BufferedImage> eldest = it.next();
+            it.remove();
+            currentBytes -= sizeOf(eldest.getValue());
+            evicted.put(eldest.getKey(), new SoftReference<>(eldest.getValue()));
+            evictionCount.incrementAndGet();
+        }
+
+        // Nettoyage des références déjà libérées par le GC
+        evicted.values().removeIf(ref -> ref.get() == null);
+    }
+
+    /**
+     * Retourne les tailles disponibles pour un nom de base, par ordre croissant.
+     */
+    private synchronized int[] getAvailableSizes(String baseName, String suffix) {
+        return availableSizes.computeIfAbsent(baseName + suffix, key -> {
+            int[] found = new int[VARIANT_SIZES.length];
+            int count = 0;
+            for (int size : VARIANT_SIZES) {
+                if (ResourceImageCache.class.getResource(variantPath(baseName, size, suffix)) != null) {
+                    found[count++] = size;
+                }
+            }
+            return Arrays.copyOf(found, count);
+        });
+    }
+
+    /**
+     * Choisit la plus petite variante couvrant la taille cible, sinon la plus grande.
+     *
+     * @return la taille retenue, ou -1 si aucune variante n'existe
+     */
+    private static int selectVariant(int[] sizes, int target) {
+        if (sizes.length == 0) {
+            return -1;
+        }
+        for (int size : sizes) {
+            if (size >= target) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    private static String variantPath(String baseName, int size, String suffix) {
+        return baseName + size + suffix + ".png";
+    }
+
+    /**
+     * Décode une ressource et la convertit dans un format compatible avec l'écran.
+     */
+    private static BufferedImage decode(String resourcePath) {
+        try (InputStream is = ResourceImageCache.class.getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                System.err.println("ResourceImageCache: Image non trouvée: " + resourcePath);
+                return null;
+            }
+            BufferedImage image = ImageIO.read(is);
+            if (image == null) {
+                System.err.println("ResourceImageCache: Format non reconnu: " + resourcePath);
+                return null;
+            }
+            return toCompatibleImage(image);
+        } catch (IOException e) {
+            System.err.println("ResourceImageCache: Erreur de lecture de " + resourcePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Convertit une image dans le format natif de l'écran pour un affichage rapide.
+     */
+    private static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return image;
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        if (image.getColorModel().equals(gc.getColorModel(image.getTransparency()))) {
+            return image;
+        }
+        BufferedImage compatible = gc.createCompatibleImage(
+                image.getWidth(), image.getHeight(), image.getTransparency());
+        Graphics2D g2d = compatible.createGraphics();
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return compatible;
+    }
+
+    /**
+     * @return l'échelle HiDPI de l'écran principal
+     */
+    private static double getScreenScale() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return 1.0;
+        }
+        AffineTransform tx = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration().getDefaultTransform();
+        return Math.max(1.0, tx.getScaleX());
+    }
+
+    /**
+     * Estime l'empreinte mémoire d'une image (4 octets par pixel).
+     */
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+}
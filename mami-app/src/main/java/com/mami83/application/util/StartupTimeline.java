@@ -0,0 +1,158 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.util;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Chronologie du démarrage : durée de chaque étape (splash, Look and Feel,
+ * décodage des images, création de la vue...) et thread qui l'a exécutée.
+ * <p>
+ * Les étapes sont toujours enregistrées (coût négligeable) ; la chronologie
+ * est affichée avec l'option {@code --startup-timeline}. Les temps sont
+ * comptés depuis le lancement du processus quand il est connu.
+ *
+ * @author Association MAMI
+ */
+public final class StartupTimeline {
+
+    // Référence des temps : chargement de cette classe (tout début du main)
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    // Temps écoulé entre le lancement du processus et le main (-1 si inconnu)
+    private static final long JVM_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(start -> Duration.between(start, Instant.now()).toMillis())
+            .orElse(-1L);
+
+    private static final Queue<Phase> PHASES = new ConcurrentLinkedQueue<>();
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * Exécute une étape et enregistre sa durée.
+     *
+     * @param name le nom de l'étape
+     * @param step l'étape
+     */
+    public static void time(String name, Runnable step) {
+        Phase phase = begin(name);
+        try {
+            step.run();
+        } finally {
+            phase.end();
+        }
+    }
+
+    /**
+     * Exécute une étape qui produit un résultat et enregistre sa durée.
+     *
+     * @param name le nom de l'étape
+     * @param step l'étape
+     * @param <T> le type du résultat
+     * @return le résultat de l'étape
+     */
+    public static <T> T time(String name, Supplier<T> step) {
+        Phase phase = begin(name);
+        try {
+            return step.get();
+        } finally {
+            phase.end();
+        }
+    }
+
+    /**
+     * Commence une étape asynchrone, à terminer par {@link Phase#end()}.
+     *
+     * @param name le nom de l'étape
+     * @return l'étape en cours
+     */
+    public static Phase begin(String name) {
+        Phase phase = new Phase(name, Thread.currentThread().getName(), System.nanoTime());
+        PHASES.add(phase);
+        return phase;
+    }
+
+    /**
+     * Enregistre un instant remarquable (fenêtre affichée...).
+     *
+     * @param name le nom de l'instant
+     */
+    public static void mark(String name) {
+        begin(name).end();
+    }
+
+    /**
+     * @return le temps écoulé depuis le lancement du processus (ms)
+     */
+    public static long elapsedMillis() {
+        return Math.max(0, JVM_MILLIS) + (System.nanoTime() - ORIGIN_NANOS) / 1_000_000;
+    }
+
+    /**
+     * Affiche la chronologie, étapes triées par heure de début.
+     *
+     * @param out le flux de sortie
+     */
+    public static void print(PrintStream out) {
+        List<Phase> phases = new ArrayList<>(PHASES);
+        phases.sort(Comparator.comparingLong(p -> p.startNanos));
+        long offset = Math.max(0, JVM_MILLIS);
+
+        out.println("=== Démarrage Mami : " + elapsedMillis() + " ms ===");
+        if (JVM_MILLIS >= 0) {
+            out.printf("%7d ms  %+7d ms  %-28s%n", 0, JVM_MILLIS, "JVM jusqu'au main");
+        }
+        for (Phase phase : phases) {
+            long start = offset + (phase.startNanos - ORIGIN_NANOS) / 1_000_000;
+            String duration = phase.endNanos > 0
+                    ? String.format("%+7d ms", (phase.endNanos - phase.startNanos) / 1_000_000)
+                    : "  (en cours)";
+            out.printf("%7d ms  %s  %-28s [%s]%n", start, duration, phase.name, phase.thread);
+        }
+    }
+
+    /**
+     * Étape du démarrage.
+     */
+    public static final class Phase {
+
+        private final String name;
+        private final String thread;
+        private final long startNanos;
+        private volatile long endNanos;
+
+        private Phase(String name, String thread, long startNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Termine l'étape (sans effet si elle est déjà terminée).
+         */
+        public void end() {
+            if (endNanos == 0) {
+                endNanos = System.nanoTime();
+            }
+        }
+
+        /**
+         * @return la durée de l'étape (ms), ou -1 si elle est en cours
+         */
+        public long getDurationMillis() {
+            return endNanos > 0 ? (endNanos - startNanos) / 1_000_000 : -1;
+        }
+    }
+}
@@ -9,17 +9,75 @@ import com.mami83.application.MamiApp;
 import com.mami83.application.MamiView;
 
 import javax.swing.*;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
  * Utilitaire pour exécuter des tâches en arrière-plan avec affichage
  * de la progression en temps réel dans la barre de statut.
+ * <p>
+ * Les tâches sont exécutées par un ordonnanceur propre à l'application
+ * avec deux files : {@link Priority#INTERACTIVE} pour ce que l'utilisateur
+ * attend, {@link Priority#BACKGROUND} pour le reste (préchargements,
+ * exports...). Une tâche peut porter une clé : tant qu'une tâche de même
+ * clé est en cours, une nouvelle demande retourne la poignée existante
+ * au lieu de relancer le travail. Les callbacks sont appelés sur l'EDT.
+ * <p>
+ * En mode {@link ExecutionMode#VIRTUAL} (choisi au démarrage), chaque tâche
+ * s'exécute sur son propre thread virtuel : des centaines d'entrées/sorties
+ * bloquantes (exports, requêtes) peuvent alors tourner en parallèle sans
+ * épuiser les files.
  *
  * @author Association MAMI
  */
 public class TaskExecutor {
 
+    /**
+     * File de priorité d'une tâche.
+     */
+    public enum Priority {
+        /** Tâche attendue par l'utilisateur (chargement d'écran, connexion...) */
+        INTERACTIVE,
+        /** Tâche de fond pouvant attendre */
+        BACKGROUND
+    }
+
+    /**
+     * Type de threads utilisés pour exécuter les tâches.
+     */
+    public enum ExecutionMode {
+        /** Files bornées de threads plateforme (par défaut) */
+        PLATFORM,
+        /** Un thread virtuel par tâche */
+        VIRTUAL
+    }
+
+    private static volatile ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+    private static final ExecutorService INTERACTIVE_LANE = createLane("mami-task",
+            Math.max(2, Runtime.getRuntime().availableProcessors()), Thread.NORM_PRIORITY);
+
+    private static final ExecutorService BACKGROUND_LANE = createLane("mami-background",
+            2, Thread.MIN_PRIORITY);
+
+    // Sous-tâches des tâches composites (séparées pour éviter qu'un parent en attente bloque ses enfants)
+    private static final ExecutorService SUBTASK_LANE = createLane("mami-subtask",
+            Math.max(4, 2 * Runtime.getRuntime().availableProcessors()), Thread.NORM_PRIORITY);
+
+    // Tâches en cours par clé de déduplication
+    private static final Map<String, TaskHandle<?>> IN_FLIGHT = new ConcurrentHashMap<>();
+
     /**
      * Exécute une tâche simple avec progression indéterminée.
      *
@@ -27,9 +85,10 @@ public class TaskExecutor {
      * @param task la tâche à exécuter
      * @param onSuccess callback appelé en cas de succès
      * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche
      */
-    public static <T> void executeIndeterminate(String taskName, Callable<T> task, Consumer<T> onSuccess) {
-        executeIndeterminate(taskName, task, onSuccess, null);
+    public static <T> TaskHandle<T> executeIndeterminate(String taskName, Callable<T> task, Consumer<T> onSuccess) {
+        return executeIndeterminate(taskName, task, onSuccess, null);
     }
 
     /**
@@ -40,35 +99,29 @@ public class TaskExecutor {
      * @param onSuccess callback appelé en cas de succès
      * @param onError callback appelé en cas d'erreur
      * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche
      */
-    public static <T> void executeIndeterminate(String taskName, Callable<T> task, 
+    public static <T> TaskHandle<T> executeIndeterminate(String taskName, Callable<T> task, 
                                                   Consumer<T> onSuccess, Consumer<Exception> onError) {
-        MamiView view = MamiApp.getMamiView();
-        view.startIndeterminateTask(taskName);
-
-        SwingWorker<T, Void> worker = new SwingWorker<>() {
-            @Override
-            protected T doInBackground() throws Exception {
-                return task.call();
-            }
+        return executeIndeterminate(taskName, null, Priority.INTERACTIVE, task, onSuccess, onError);
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    T result = get();
-                    view.endIndeterminateTask("Terminé");
-                    if (onSuccess != null) {
-                        onSuccess.accept(result);
-                    }
-                } catch (Exception e) {
-                    view.endTaskWithError(e.getMessage());
-                    if (onError != null) {
-                        onError.accept(e);
-                    }
-                }
-            }
-        };
-        worker.execute();
+    /**
+     * Exécute une tâche simple avec progression indéterminée.
+     *
+     * @param taskName le nom de la tâche
+     * @param key la clé de déduplication (null pour ne pas dédupliquer)
+     * @param priority la file de priorité
+     * @param task la tâche à exécuter
+     * @param onSuccess callback appelé en cas de succès
+     * @param onError callback appelé en cas d'erreur
+     * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche (celle déjà en cours si la clé est occupée)
+     */
+    public static <T> TaskHandle<T> executeIndeterminate(String taskName, String key, Priority priority,
+                                                         Callable<T> task, Consumer<T> onSuccess,
+                                                         Consumer<Exception> onError) {
+        return submit(taskName, key, priority, false, reporter -> task.call(), onSuccess, onError);
     }
 
     /**
@@ -78,9 +131,10 @@ public class TaskExecutor {
      * @param task la tâche à exécuter (reçoit un ProgressReporter)
      * @param onSuccess callback appelé en cas de succès
      * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche
      */
-    public static <T> void executeWithProgress(String taskName, ProgressTask<T> task, Consumer<T> onSuccess) {
-        executeWithProgress(taskName, task, onSuccess, null);
+    public static <T> TaskHandle<T> executeWithProgress(String taskName, ProgressTask<T> task, Consumer<T> onSuccess) {
+        return executeWithProgress(taskName, task, onSuccess, null);
     }
 
     /**
@@ -91,51 +145,29 @@ public class TaskExecutor {
      * @param onSuccess callback appelé en cas de succès
      * @param onError callback appelé en cas d'erreur
      * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche
      */
-    public static <T> void executeWithProgress(String taskName, ProgressTask<T> task,
+    public static <T> TaskHandle<T> executeWithProgress(String taskName, ProgressTask<T> task,
                                                  Consumer<T> onSuccess, Consumer<Exception> onError) {
-        MamiView view = MamiApp.getMamiView();
-        view.startTask(taskName);
-
-        SwingWorker<T, Integer> worker = new SwingWorker<>() {
-            @Override
-            protected T doInBackground() throws Exception {
-                return task.execute(new ProgressReporter() {
-                    @Override
-                    public void updateProgress(int percent) {
-                        publish(percent);
-                    }
-
-                    @Override
-                    public void updateProgress(int percent, String message) {
-                        view.updateProgress(percent, message);
-                    }
-                });
-            }
-
-            @Override
-            protected void process(java.util.List<Integer> chunks) {
-                int latestProgress = chunks.get(chunks.size() - 1);
-                view.updateProgress(latestProgress);
-            }
+        return executeWithProgress(taskName, null, Priority.INTERACTIVE, task, onSuccess, onError);
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    T result = get();
-                    view.endTask("Terminé");
-                    if (onSuccess != null) {
-                        onSuccess.accept(result);
-                    }
-                } catch (Exception e) {
-                    view.endTaskWithError(e.getMessage());
-                    if (onError != null) {
-                        onError.accept(e);
-                    }
-                }
-            }
-        };
-        worker.execute();
+    /**
+     * Exécute une tâche avec progression connue.
+     *
+     * @param taskName le nom de la tâche
+     * @param key la clé de déduplication (null pour ne pas dédupliquer)
+     * @param priority la file de priorité
+     * @param task la tâche à exécuter (reçoit un ProgressReporter)
+     * @param onSuccess callback appelé en cas de succès
+     * @param onError callback appelé en cas d'erreur
+     * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche (celle déjà en cours si la clé est occupée)
+     */
+    public static <T> TaskHandle<T> executeWithProgress(String taskName, String key, Priority priority,
+                                                        ProgressTask<T> task, Consumer<T> onSuccess,
+                                                        Consumer<Exception> onError) {
+        return submit(taskName, key, priority, false, task, onSuccess, onError);
     }
 
     /**
@@ -144,9 +176,10 @@ public class TaskExecutor {
      * @param taskName le nom de la tâche
      * @param task la tâche à exécuter
      * @param onComplete callback appelé à la fin
+     * @return la poignée de la tâche
      */
-    public static void executeWithProgress(String taskName, ProgressRunnable task, Runnable onComplete) {
-        executeWithProgress(taskName, reporter -> {
+    public static TaskHandle<Void> executeWithProgress(String taskName, ProgressRunnable task, Runnable onComplete) {
+        return executeWithProgress(taskName, reporter -> {
             task.run(reporter);
             return null;
         }, result -> {
@@ -156,6 +189,272 @@ public class TaskExecutor {
         });
     }
 
+    /**
+     * Exécute une tâche composite dont les sous-tâches tournent en parallèle.
+     *
+     * @param taskName le nom de la tâche
+     * @param task la tâche (reçoit une TaskScope pour lancer ses sous-tâches)
+     * @param onSuccess callback appelé en cas de succès
+     * @param onError callback appelé en cas d'erreur
+     * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche
+     */
+    public static <T> TaskHandle<T> executeComposite(String taskName, CompositeTask<T> task,
+                                                     Consumer<T> onSuccess, Consumer<Exception> onError) {
+        return executeComposite(taskName, null, Priority.INTERACTIVE, task, onSuccess, onError);
+    }
+
+    /**
+     * Exécute une tâche composite dont les sous-tâches tournent en parallèle.
+     * La progression pondérée des sous-tâches est affichée dans la barre de statut ;
+     * l'échec d'une sous-tâche ou l'annulation de la tâche annule les autres.
+     * Les sous-tâches encore en cours sont attendues à la fin de la tâche.
+     *
+     * @param taskName le nom de la tâche
+     * @param key la clé de déduplication (null pour ne pas dédupliquer)
+     * @param priority la file de priorité
+     * @param task la tâche (reçoit une TaskScope pour lancer ses sous-tâches)
+     * @param onSuccess callback appelé en cas de succès
+     * @param onError callback appelé en cas d'erreur
+     * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche (celle déjà en cours si la clé est occupée)
+     */
+    public static <T> TaskHandle<T> executeComposite(String taskName, String key, Priority priority,
+                                                     CompositeTask<T> task, Consumer<T> onSuccess,
+                                                     Consumer<Exception> onError) {
+        return submit(taskName, key, priority, false, reporter -> {
+            TaskScope scope = new TaskScope(subtaskLane(), reporter);
+            try {
+                T result = task.execute(scope);
+                scope.join();
+                return result;
+            } finally {
+                // Erreur ou annulation : aucune sous-tâche ne survit à la tâche
+                scope.cancelAndAwait();
+            }
+        }, onSuccess, onError);
+    }
+
+    /**
+     * Exécute une tâche de fond silencieuse (préchargement...).
+     * La tâche n'apparaît pas dans la barre de statut et n'a pas de callbacks :
+     * son résultat est disponible via {@link TaskHandle#future()}.
+     *
+     * @param key la clé de déduplication (sert aussi de nom)
+     * @param task la tâche à exécuter
+     * @param <T> le type de retour de la tâche
+     * @return la poignée de la tâche (celle déjà en cours si la clé est occupée)
+     */
+    public static <T> TaskHandle<T> executeInBackground(String key, Callable<T> task) {
+        return submit(key, key, Priority.BACKGROUND, true, reporter -> task.call(), null, null);
+    }
+
+    /**
+     * Retourne la tâche en cours pour une clé.
+     *
+     * @param key la clé de déduplication
+     * @return la poignée de la tâche, ou null si aucune n'est en cours
+     */
+    public static TaskHandle<?> getRunningTask(String key) {
+        TaskHandle<?> handle = IN_FLIGHT.get(key);
+        return handle != null && !handle.isDone() ? handle : null;
+    }
+
+    /**
+     * Choisit le type de threads des tâches. À appeler au démarrage,
+     * avant la première tâche.
+     *
+     * @param mode le mode d'exécution
+     */
+    public static void setExecutionMode(ExecutionMode mode) {
+        executionMode = mode;
+    }
+
+    /**
+     * @return le mode d'exécution courant
+     */
+    public static ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    // ==================== ORDONNANCEMENT ====================
+
+    /**
+     * Soumet une tâche à la file demandée, ou retourne la tâche de même clé déjà en cours.
+     * Une tâche de même clé annulée mais pas encore sortie n'est pas réutilisée :
+     * la nouvelle tâche démarre à sa sortie.
+     * Une tâche silencieuse n'est pas affichée dans la barre de statut.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> TaskHandle<T> submit(String taskName, String key, Priority priority, boolean silent,
+                                            ProgressTask<T> task, Consumer<T> onSuccess,
+                                            Consumer<Exception> onError) {
+        TaskHandle<T> handle = new TaskHandle<>(taskName, key, priority);
+        TaskHandle<?>[] cancelled = new TaskHandle<?>[1];
+        if (key != null) {
+            TaskHandle<?> current = IN_FLIGHT.compute(key, (k, existing) -> {
+                if (existing == null || existing.isDone()) {
+                    return handle;
+                }
+                if (existing.isCancelled()) {
+                    // Nouvelle demande après « Annuler » : nouvelle tâche, lancée à la sortie de l'ancienne
+                    cancelled[0] = existing;
+                    return handle;
+                }
+                return existing;
+            });
+            if (current != handle) {
+                // Même tâche déjà en cours : pas de double chargement, mais ce
+                // demandeur reçoit aussi le résultat
+                TaskHandle<T> running = (TaskHandle<T>) current;
+                if (onSuccess != null || onError != null) {
+                    running.completion().whenComplete((result, failure) -> SwingUtilities.invokeLater(
+                            () -> deliver(result, failure, onSuccess, onError)));
+                }
+                return running;
+            }
+        }
+
+        MamiView view = silent ? null : MamiApp.getMamiView();
+        if (view != null) {
+            view.taskStarted(handle);
+        }
+
+        ProgressReporter reporter = new ProgressReporter() {
+            @Override
+            public void updateProgress(int percent) {
+                if (view != null) {
+                    view.taskProgress(handle, percent, null);
+                }
+            }
+
+            @Override
+            public void updateProgress(int percent, String message) {
+                if (view != null) {
+                    view.taskProgress(handle, percent, message);
+                }
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return handle.isCancelled();
+            }
+        };
+
+        // Fin de tâche (succès, erreur ou annulation) : retour sur l'EDT
+        handle.completion().whenComplete((result, failure) -> {
+            if (key != null) {
+                IN_FLIGHT.remove(key, handle);
+            }
+            if (view != null) {
+                SwingUtilities.invokeLater(() -> finish(view, handle, result, failure, onSuccess, onError));
+            }
+        });
+
+        Runnable body = () -> {
+            if (!handle.start()) {
+                // Annulée pendant qu'elle était en file
+                return;
+            }
+            // Terminée seulement ici : la clé reste occupée tant que le thread tourne
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = task.execute(reporter);
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                handle.finish(result, failure);
+            }
+        };
+        if (cancelled[0] != null) {
+            // Pas deux exécutions simultanées pour une même clé
+            cancelled[0].completion().whenComplete(
+                    (r, f) -> handle.setRunner(laneFor(priority).submit(body)));
+        } else {
+            handle.setRunner(laneFor(priority).submit(body));
+        }
+        return handle;
+    }
+
+    /**
+     * Met à jour la barre de statut et appelle les callbacks (sur l'EDT).
+     */
+    private static <T> void finish(MamiView view, TaskHandle<T> handle, T result, Throwable failure,
+                                   Consumer<T> onSuccess, Consumer<Exception> onError) {
+        Exception exception = failure != null ? unwrap(failure) : null;
+        if (exception == null) {
+            view.taskFinished(handle, "Terminé", false);
+        } else if (isCancellation(exception)) {
+            view.taskFinished(handle, "Annulé", false);
+        } else {
+            view.taskFinished(handle, exception.getMessage(), true);
+        }
+        deliver(result, failure, onSuccess, onError);
+    }
+
+    /**
+     * Appelle les callbacks d'un demandeur (sur l'EDT) ; rien en cas d'annulation.
+     */
+    private static <T> void deliver(T result, Throwable failure, Consumer<T> onSuccess,
+                                    Consumer<Exception> onError) {
+        if (failure == null) {
+            if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+            return;
+        }
+        Exception exception = unwrap(failure);
+        if (!isCancellation(exception) && onError != null) {
+            onError.accept(exception);
+        }
+    }
+
+    private static Exception unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        return cause instanceof Exception e ? e : new ExecutionException(cause);
+    }
+
+    private static boolean isCancellation(Exception exception) {
+        return exception instanceof CancellationException || exception instanceof InterruptedException;
+    }
+
+    private static ExecutorService laneFor(Priority priority) {
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            return VirtualLane.EXECUTOR;
+        }
+        return priority == Priority.BACKGROUND ? BACKGROUND_LANE : INTERACTIVE_LANE;
+    }
+
+    private static ExecutorService subtaskLane() {
+        return executionMode == ExecutionMode.VIRTUAL ? VirtualLane.EXECUTOR : SUBTASK_LANE;
+    }
+
+    /**
+     * Crée une file d'exécution bornée à threads démons.
+     */
+    private static ExecutorService createLane(String name, int threads, int threadPriority) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(threadPriority);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Exécuteur à threads virtuels, créé seulement si ce mode est utilisé.
+     */
+    private static final class VirtualLane {
+        static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("mami-vtask-", 1).factory());
+    }
+
     /**
      * Interface pour les tâches avec progression.
      *
@@ -166,6 +465,16 @@ public class TaskExecutor {
         T execute(ProgressReporter reporter) throws Exception;
     }
 
+    /**
+     * Interface pour les tâches composites.
+     *
+     * @param <T> le type de retour
+     */
+    @FunctionalInterface
+    public interface CompositeTask<T> {
+        T execute(TaskScope scope) throws Exception;
+    }
+
     /**
      * Interface pour les tâches sans retour avec progression.
      */
@@ -192,6 +501,16 @@ public class TaskExecutor {
          * @param message le message à afficher
          */
         void updateProgress(int percent, String message);
+
+        /**
+         * Indique si l'annulation de la tâche a été demandée.
+         * Une tâche longue doit le consulter régulièrement et s'arrêter.
+         *
+         * @return true si la tâche doit s'arrêter
+         */
+        default boolean isCancelled() {
+            return Thread.currentThread().isInterrupted();
+        }
     }
 
     /**
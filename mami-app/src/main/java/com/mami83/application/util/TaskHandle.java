@@ -0,0 +1,145 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Poignée sur une tâche lancée par {@link TaskExecutor}.
+ * Permet d'annuler la tâche, de connaître son état et d'attendre son résultat.
+ * La tâche n'est terminée (y compris annulée) qu'une fois son thread sorti :
+ * sa clé de déduplication reste occupée jusque-là.
+ *
+ * @param <T> le type de retour de la tâche
+ * @author Association MAMI
+ */
+public class TaskHandle<T> {
+
+    private final String taskName;
+    private final String key;
+    private final TaskExecutor.Priority priority;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    // Pris par le thread d'exécution au démarrage, ou par cancel() si la tâche est encore en file
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile boolean cancelled = false;
+    private volatile Future<?> runner;
+
+    TaskHandle(String taskName, String key, TaskExecutor.Priority priority) {
+        this.taskName = taskName;
+        this.key = key;
+        this.priority = priority;
+    }
+
+    /**
+     * Demande l'annulation de la tâche.
+     * Le thread d'exécution est interrompu et la tâche peut consulter
+     * {@link #isCancelled()} pour s'arrêter proprement ; elle est terminée
+     * (« Annulé ») quand son thread en sort. Une tâche encore en file est
+     * terminée immédiatement.
+     *
+     * @return true si la tâche n'était pas déjà terminée
+     */
+    public boolean cancel() {
+        if (result.isDone()) {
+            return false;
+        }
+        cancelled = true;
+        if (claimed.compareAndSet(false, true)) {
+            // Jamais démarrée : rien ne tourne, la clé peut être libérée
+            result.cancel(false);
+            return true;
+        }
+        Future<?> r = runner;
+        if (r != null) {
+            r.cancel(true);
+        }
+        return true;
+    }
+
+    /**
+     * @return true si l'annulation a été demandée
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return true si la tâche est terminée (succès, erreur ou annulation)
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /**
+     * @return une copie du future du résultat (complétée hors EDT, avant les
+     *         callbacks) : la compléter n'a pas d'effet sur la tâche
+     */
+    public CompletableFuture<T> future() {
+        return result.copy();
+    }
+
+    /**
+     * @return le future interne, complété uniquement par {@link TaskExecutor}
+     */
+    CompletableFuture<T> completion() {
+        return result;
+    }
+
+    /**
+     * Marque le démarrage de la tâche (thread d'exécution).
+     *
+     * @return false si la tâche a été annulée avant de démarrer
+     */
+    boolean start() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Termine la tâche à la sortie de son thread : annulée si l'annulation
+     * a été demandée, sinon avec son résultat ou son erreur.
+     */
+    void finish(T value, Throwable failure) {
+        if (cancelled) {
+            result.completeExceptionally(new CancellationException("Tâche annulée : " + taskName));
+        } else if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    /**
+     * @return le nom de la tâche
+     */
+    public String getTaskName() {
+        return taskName;
+    }
+
+    /**
+     * @return la clé de déduplication, ou null
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return la file de priorité de la tâche
+     */
+    public TaskExecutor.Priority getPriority() {
+        return priority;
+    }
+
+    void setRunner(Future<?> runner) {
+        this.runner = runner;
+        if (cancelled) {
+            runner.cancel(true);
+        }
+    }
+}
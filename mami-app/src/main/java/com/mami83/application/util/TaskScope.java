@@ -0,0 +1,270 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Portée d'une tâche composite : permet de lancer des sous-tâches en parallèle
+ * (ex : chargement des familles, des contrats et des heures d'un module),
+ * chacune avec un poids dans la progression globale.
+ * <p>
+ * La progression pondérée des sous-tâches est remontée à la tâche parente.
+ * Si une sous-tâche échoue ou si la tâche parente est annulée, toutes les
+ * autres sous-tâches sont annulées et {@link #join()} lève l'erreur.
+ * Dans tous les cas, la portée n'est quittée qu'une fois le thread de chaque
+ * sous-tâche sorti : une sous-tâche annulée ne survit pas à sa tâche parente.
+ *
+ * @author Association MAMI
+ * @see TaskExecutor#executeComposite
+ */
+public class TaskScope {
+
+    private final ExecutorService executor;
+    private final TaskExecutor.ProgressReporter parentReporter;
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    private double totalWeight = 0;
+    private int lastPercent = -1;
+
+    TaskScope(ExecutorService executor, TaskExecutor.ProgressReporter parentReporter) {
+        this.executor = executor;
+        this.parentReporter = parentReporter;
+    }
+
+    /**
+     * Lance une sous-tâche en parallèle.
+     *
+     * @param name le nom de la sous-tâche (affiché dans la barre de statut)
+     * @param weight le poids de la sous-tâche dans la progression globale
+     * @param task la sous-tâche (reçoit son propre ProgressReporter)
+     * @param <R> le type de retour de la sous-tâche
+     * @return la sous-tâche, dont le résultat est disponible après {@link #join()}
+     */
+    public synchronized <R> Subtask<R> fork(String name, double weight, TaskExecutor.ProgressTask<R> task) {
+        if (isCancelled()) {
+            throw new CancellationException("Tâche annulée");
+        }
+        Subtask<R> subtask = new Subtask<>(name, Math.max(0, weight));
+        subtasks.add(subtask);
+        totalWeight += subtask.weight;
+
+        TaskExecutor.ProgressReporter reporter = new TaskExecutor.ProgressReporter() {
+            @Override
+            public void updateProgress(int percent) {
+                subtaskProgress(subtask, percent, null);
+            }
+
+            @Override
+            public void updateProgress(int percent, String message) {
+                subtaskProgress(subtask, percent, message);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return TaskScope.this.isCancelled() || Thread.currentThread().isInterrupted();
+            }
+        };
+
+        subtask.runner = executor.submit(() -> {
+            if (!subtask.claimed.compareAndSet(false, true)) {
+                // Annulée pendant qu'elle était en file (déjà comptée comme sortie)
+                return;
+            }
+            try {
+                R result = task.execute(reporter);
+                subtask.result.complete(result);
+                subtaskProgress(subtask, 100, null);
+            } catch (Throwable t) {
+                subtask.result.completeExceptionally(t);
+                fail(t);
+            } finally {
+                subtask.exited.countDown();
+            }
+        });
+        return subtask;
+    }
+
+    /**
+     * Lance une sous-tâche de poids 1.
+     *
+     * @param name le nom de la sous-tâche
+     * @param task la sous-tâche
+     * @param <R> le type de retour de la sous-tâche
+     * @return la sous-tâche
+     */
+    public <R> Subtask<R> fork(String name, TaskExecutor.ProgressTask<R> task) {
+        return fork(name, 1, task);
+    }
+
+    /**
+     * Attend la fin de toutes les sous-tâches lancées (sortie de leur thread).
+     * Le temps d'attente est celui de la sous-tâche la plus lente.
+     *
+     * @throws Exception l'erreur de la première sous-tâche en échec
+     */
+    public void join() throws Exception {
+        try {
+            for (Subtask<?> subtask : snapshot()) {
+                subtask.exited.await();
+            }
+        } catch (InterruptedException e) {
+            // Annulation de la tâche parente : on propage aux sous-tâches
+            cancelAndAwait();
+            throw e;
+        }
+
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            if (failure instanceof Exception e) {
+                throw e;
+            }
+            throw new CompletionException(failure);
+        }
+    }
+
+    /**
+     * @return true si la tâche parente est annulée ou si une sous-tâche a échoué
+     */
+    public boolean isCancelled() {
+        return firstFailure.get() != null || parentReporter.isCancelled();
+    }
+
+    /**
+     * @return le reporter de la tâche parente (pour les étapes hors sous-tâches)
+     */
+    public TaskExecutor.ProgressReporter getReporter() {
+        return parentReporter;
+    }
+
+    /**
+     * Enregistre le premier échec et annule les autres sous-tâches.
+     */
+    private void fail(Throwable t) {
+        if (firstFailure.compareAndSet(null, t)) {
+            cancelAll();
+        }
+    }
+
+    /**
+     * Annule les sous-tâches en cours et attend la sortie de leur thread
+     * (fin de la tâche parente, y compris sur erreur ou annulation).
+     * L'interruption du thread appelant est conservée pour la suite.
+     */
+    void cancelAndAwait() {
+        cancelAll();
+        boolean interrupted = false;
+        for (Subtask<?> subtask : snapshot()) {
+            while (true) {
+                try {
+                    subtask.exited.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized List<Subtask<?>> snapshot() {
+        return new ArrayList<>(subtasks);
+    }
+
+    /**
+     * Annule les sous-tâches : une sous-tâche en file est terminée tout de
+     * suite, une sous-tâche démarrée est interrompue et se termine à sa sortie.
+     */
+    private synchronized void cancelAll() {
+        for (Subtask<?> subtask : subtasks) {
+            if (subtask.claimed.compareAndSet(false, true)) {
+                subtask.result.cancel(false);
+                subtask.exited.countDown();
+            } else if (!subtask.result.isDone()) {
+                Future<?> r = subtask.runner;
+                if (r != null) {
+                    r.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recalcule la progression pondérée et la remonte à la tâche parente.
+     */
+    private void subtaskProgress(Subtask<?> subtask, int percent, String message) {
+        int aggregated;
+        synchronized (this) {
+            subtask.percent = Math.max(0, Math.min(100, percent));
+            double done = 0;
+            for (Subtask<?> s : subtasks) {
+                done += s.weight * s.percent;
+            }
+            aggregated = totalWeight > 0 ? (int) (done / totalWeight) : 0;
+            if (aggregated == lastPercent && message == null) {
+                return;
+            }
+            lastPercent = aggregated;
+        }
+        if (message != null) {
+            parentReporter.updateProgress(aggregated, subtask.name + " : " + message);
+        } else {
+            parentReporter.updateProgress(aggregated);
+        }
+    }
+
+    /**
+     * Sous-tâche lancée dans une {@link TaskScope}.
+     *
+     * @param <R> le type de retour
+     */
+    public static class Subtask<R> {
+
+        private final String name;
+        private final double weight;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        // Pris par le thread de la sous-tâche au démarrage, ou par l'annulation si elle est en file
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch exited = new CountDownLatch(1);
+        private volatile Future<?> runner;
+        private int percent = 0;
+
+        Subtask(String name, double weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        /**
+         * @return le résultat de la sous-tâche (après {@link TaskScope#join()})
+         * @throws IllegalStateException si la sous-tâche n'est pas terminée avec succès
+         */
+        public R get() {
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                throw new IllegalStateException("Sous-tâche non terminée: " + name);
+            }
+            return result.join();
+        }
+
+        /**
+         * @return le nom de la sous-tâche
+         */
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.util;
+
+import javax.swing.SwingUtilities;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ComponentEvent;
+import java.awt.event.FocusEvent;
+import java.awt.event.InvocationEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.PaintEvent;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File d'événements AWT instrumentée : mesure la durée de traitement de
+ * chaque événement, regroupée par type d'événement et classe du composant
+ * cible (ex : MOUSE_RELEASED sur NavigationButton, qui inclut ses
+ * ActionListeners). Les centiles p50/p99 sont calculés en mémoire et la
+ * synthèse est exportée en CSV à la fermeture de l'application.
+ * <p>
+ * La cible est résolue avant le traitement : composant le plus profond sous
+ * la souris (celui du MOUSE_PRESSED pour le relâchement, le glissement et
+ * le clic), propriétaire du focus pour le clavier. Un événement dont le
+ * traitement a pompé d'autres événements (boucle secondaire d'un dialogue
+ * modal) n'est pas mesuré : sa durée est surtout l'attente de l'utilisateur.
+ * <p>
+ * Optionnelle : la file n'est installée qu'avec {@code --event-timing}
+ * (ou {@code -Dmami.events.timing=true}) ; sans elle, la file standard
+ * est utilisée et le coût est nul. Fichier CSV : {@code mami.events.csv}
+ * (défaut {@code mami-evenements-<date>.csv} dans le répertoire courant).
+ *
+ * @author Association MAMI
+ */
+public class TimedEventQueue extends EventQueue {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static volatile TimedEventQueue instance;
+
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    // État du traitement en cours (EDT uniquement)
+    private int depth;
+    private boolean nestedDispatch;
+    private Class<?> pressedTarget;
+
+    /**
+     * Type d'événement et classe de la cible.
+     */
+    private record Key(int id, Class<?> eventClass, Class<?> targetClass) {
+    }
+
+    private TimedEventQueue() {
+    }
+
+    /**
+     * Installe la file instrumentée et l'export CSV à la fermeture
+     * (sans effet si elle est déjà installée).
+     *
+     * @return la file instrumentée
+     */
+    public static synchronized TimedEventQueue install() {
+        if (instance == null) {
+            TimedEventQueue queue = new TimedEventQueue();
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+            Runtime.getRuntime().addShutdownHook(new Thread(queue::exportOnExit, "mami-event-export"));
+            instance = queue;
+        }
+        return instance;
+    }
+
+    /**
+     * @return la file instrumentée, ou null si elle n'est pas installée
+     */
+    public static TimedEventQueue getInstance() {
+        return instance;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (!enabled) {
+            super.dispatchEvent(event);
+            return;
+        }
+        Key key = new Key(event.getID(), event.getClass(), targetClass(event));
+        boolean outerNested = nestedDispatch;
+        nestedDispatch = false;
+        depth++;
+        long start = System.nanoTime();
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            depth--;
+            if (!nestedDispatch) {
+                stats.computeIfAbsent(key, k -> new Stats()).record(elapsed);
+            }
+            // Événement pompé par un autre : la durée de l'englobant n'est pas significative
+            nestedDispatch = outerNested || depth > 0;
+        }
+    }
+
+    /**
+     * Classe du composant qui recevra l'événement : la source d'un événement
+     * souris ou clavier est la fenêtre, le dispatch léger le redirige ensuite.
+     */
+    private Class<?> targetClass(AWTEvent event) {
+        Object source = event.getSource();
+        Object target = source;
+        if (event instanceof MouseEvent mouse && source instanceof Component component) {
+            switch (mouse.getID()) {
+                case MouseEvent.MOUSE_PRESSED -> {
+                    target = deepest(component, mouse.getX(), mouse.getY());
+                    pressedTarget = target.getClass();
+                }
+                case MouseEvent.MOUSE_RELEASED, MouseEvent.MOUSE_DRAGGED, MouseEvent.MOUSE_CLICKED -> {
+                    // Swing livre ces événements au composant du MOUSE_PRESSED
+                    if (pressedTarget != null) {
+                        return pressedTarget;
+                    }
+                    target = deepest(component, mouse.getX(), mouse.getY());
+                }
+                default -> target = deepest(component, mouse.getX(), mouse.getY());
+            }
+        } else if (event instanceof KeyEvent) {
+            Component owner = KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner();
+            if (owner != null) {
+                target = owner;
+            }
+        }
+        return target != null ? target.getClass() : null;
+    }
+
+    private static Component deepest(Component source, int x, int y) {
+        Component deepest = SwingUtilities.getDeepestComponentAt(source, x, y);
+        return deepest != null ? deepest : source;
+    }
+
+    /**
+     * Suspend ou reprend les mesures (la file reste installée).
+     *
+     * @param enabled true pour mesurer
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true si les mesures sont actives
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Efface les mesures.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    // ==================== SYNTHÈSE ====================
+
+    /**
+     * Synthèse d'un groupe d'événements.
+     *
+     * @param eventType le type d'événement (ex : MOUSE_RELEASED)
+     * @param target la classe du composant cible
+     * @param count le nombre d'événements
+     * @param totalMicros la durée cumulée (µs)
+     * @param p50Micros la médiane (µs)
+     * @param p99Micros le 99e centile (µs)
+     * @param maxMicros la durée maximale (µs)
+     */
+    public record Summary(String eventType, String target, long count, long totalMicros,
+                          long p50Micros, long p99Micros, long maxMicros) {
+    }
+
+    /**
+     * @return la synthèse par groupe, du plus coûteux (durée cumulée) au moins coûteux
+     */
+    public List<Summary> getSummaries() {
+        List<Summary> summaries = new ArrayList<>();
+        stats.forEach((key, s) -> summaries.add(s.summarize(key)));
+        summaries.sort(Comparator.comparingLong(Summary::totalMicros).reversed());
+        return summaries;
+    }
+
+    /**
+     * Exporte la synthèse au format CSV (séparateur point-virgule).
+     *
+     * @param file le fichier de destination
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void exportCsv(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("type;cible;nombre;total_us;p50_us;p99_us;max_us");
+            for (Summary s : getSummaries()) {
+                out.println(s.eventType() + ";" + s.target() + ";" + s.count() + ";" + s.totalMicros()
+                        + ";" + s.p50Micros() + ";" + s.p99Micros() + ";" + s.maxMicros());
+            }
+        }
+    }
+
+    private void exportOnExit() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        String name = System.getProperty("mami.events.csv",
+                "mami-evenements-" + LocalDateTime.now().format(FILE_DATE) + ".csv");
+        try {
+            exportCsv(Path.of(name));
+            System.out.println("TimedEventQueue: mesures exportées dans " + Path.of(name).toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("TimedEventQueue: export impossible: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return le nom lisible d'un type d'événement
+     */
+    private static String eventName(int id, Class<?> eventClass) {
+        return switch (id) {
+            case MouseEvent.MOUSE_PRESSED -> "MOUSE_PRESSED";
+            case MouseEvent.MOUSE_RELEASED -> "MOUSE_RELEASED";
+            case MouseEvent.MOUSE_CLICKED -> "MOUSE_CLICKED";
+            case MouseEvent.MOUSE_MOVED -> "MOUSE_MOVED";
+            case MouseEvent.MOUSE_DRAGGED -> "MOUSE_DRAGGED";
+            case MouseEvent.MOUSE_ENTERED -> "MOUSE_ENTERED";
+            case MouseEvent.MOUSE_EXITED -> "MOUSE_EXITED";
+            case MouseEvent.MOUSE_WHEEL -> "MOUSE_WHEEL";
+            case KeyEvent.KEY_PRESSED -> "KEY_PRESSED";
+            case KeyEvent.KEY_RELEASED -> "KEY_RELEASED";
+            case KeyEvent.KEY_TYPED -> "KEY_TYPED";
+            case FocusEvent.FOCUS_GAINED -> "FOCUS_GAINED";
+            case FocusEvent.FOCUS_LOST -> "FOCUS_LOST";
+            case PaintEvent.PAINT -> "PAINT";
+            case PaintEvent.UPDATE -> "UPDATE";
+            case InvocationEvent.INVOCATION_DEFAULT -> "INVOCATION";
+            case ActionEvent.ACTION_PERFORMED -> "ACTION_PERFORMED";
+            case ComponentEvent.COMPONENT_RESIZED -> "COMPONENT_RESIZED";
+            case ComponentEvent.COMPONENT_MOVED -> "COMPONENT_MOVED";
+            case WindowEvent.WINDOW_ACTIVATED -> "WINDOW_ACTIVATED";
+            case WindowEvent.WINDOW_DEACTIVATED -> "WINDOW_DEACTIVATED";
+            default -> eventClass.getSimpleName() + "#" + id;
+        };
+    }
+
+    /**
+     * Durées d'un groupe d'événements : histogramme logarithmique
+     * (4 classes par puissance de 2, soit ~19 % de précision sur les centiles).
+     * Écrit uniquement depuis l'EDT.
+     */
+    private static final class Stats {
+
+        private static final int BUCKETS = 4 * 32;
+
+        private final long[] histogram = new long[BUCKETS];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            histogram[bucket(nanos)]++;
+        }
+
+        Summary summarize(Key key) {
+            String target = key.targetClass() != null ? key.targetClass().getName() : "-";
+            return new Summary(eventName(key.id(), key.eventClass()), target, count, totalNanos / 1000,
+                    percentile(50) / 1000, percentile(99) / 1000, maxNanos / 1000);
+        }
+
+        /**
+         * Classe d'une durée : 4 × log2(ns), par interpolation entre deux puissances de 2.
+         */
+        private static int bucket(long nanos) {
+            if (nanos <= 1) {
+                return 0;
+            }
+            int log2 = 63 - Long.numberOfLeadingZeros(nanos);
+            int fraction = log2 >= 2 ? (int) ((nanos >> (log2 - 2)) & 3) : 0;
+            return Math.min(BUCKETS - 1, log2 * 4 + fraction);
+        }
+
+        /**
+         * @return la borne supérieure (ns) de la classe du centile demandé
+         */
+        private long percentile(double percentile) {
+            long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram[i];
+                if (seen >= rank && seen > 0) {
+                    int log2 = i / 4;
+                    long upper = (1L << log2) + ((long) (i % 4 + 1) << Math.max(0, log2 - 2));
+                    return Math.min(upper, maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
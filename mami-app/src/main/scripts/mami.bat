@@ -0,0 +1,17 @@
+@echo off
+rem Lanceur de l'application Mami.
+rem Utilise le cache AOT genere par le profil Maven "aot" (mvn -Paot package) s'il est present.
+
+setlocal
+set "DIR=%~dp0"
+set "JAR=%DIR%${project.build.finalName}.jar"
+set "AOT=%DIR%${project.build.finalName}.aot"
+
+set "JAVA=javaw"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\javaw"
+
+if exist "%AOT%" (
+    start "" "%JAVA%" --enable-preview -XX:AOTCache="%AOT%" -jar "%JAR%" %*
+) else (
+    start "" "%JAVA%" --enable-preview -jar "%JAR%" %*
+)
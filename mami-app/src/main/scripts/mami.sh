@@ -0,0 +1,19 @@
+#!/bin/sh
+# Lanceur de l'application Mami.
+# Utilise le cache AOT généré par le profil Maven "aot" (mvn -Paot package) s'il est présent.
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIR/${project.build.finalName}.jar"
+AOT="$DIR/${project.build.finalName}.aot"
+
+if [ -n "$JAVA_HOME" ]; then
+    JAVA="$JAVA_HOME/bin/java"
+else
+    JAVA=java
+fi
+
+if [ -f "$AOT" ]; then
+    exec "$JAVA" --enable-preview -XX:AOTCache="$AOT" -jar "$JAR" "$@"
+else
+    exec "$JAVA" --enable-preview -jar "$JAR" "$@"
+fi
@@ -0,0 +1,123 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.metier.facturation;
+
+import com.mami83.application.metier.Simulation;
+import com.mami83.application.util.TaskExecutor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reprise d'une génération de factures interrompue : quel que soit l'endroit
+ * où le fichier a été coupé, le fichier terminé est identique à celui d'une
+ * génération sans interruption.
+ *
+ * @author Association MAMI
+ */
+class FacturationMensuelleTest {
+
+    private static final LocalDate AUJOURD_HUI = LocalDate.of(2025, 6, 18);
+    private static final YearMonth MOIS = YearMonth.of(2025, 5);
+
+    private static final TaskExecutor.ProgressReporter SANS_SUIVI = new TaskExecutor.ProgressReporter() {
+        @Override
+        public void updateProgress(int percent) {
+        }
+
+        @Override
+        public void updateProgress(int percent, String message) {
+        }
+    };
+
+    private static HeuresFacturables heures;
+    private static List<Contrat> contrats;
+    private static List<Avoir> avoirs;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUp() {
+        contrats = Simulation.contrats(AUJOURD_HUI);
+        avoirs = Simulation.avoirs(AUJOURD_HUI);
+        heures = new HeuresFacturables(Simulation.pointages(AUJOURD_HUI), contrats);
+    }
+
+    @Test
+    void reprendApresTroncatureQuelconque() throws Exception {
+        Path reference = dir.resolve("reference.csv");
+        FacturationMensuelle.Resultat complet = facturation().generate(MOIS, reference, true, SANS_SUIVI);
+        byte[] attendu = Files.readAllBytes(reference);
+
+        // Autour de chaque fin de ligne, puis des positions au hasard (milieu de ligne, de caractère...)
+        TreeSet<Integer> positions = new TreeSet<>(List.of(0, 1, attendu.length - 1));
+        for (int i = 0; i < attendu.length; i++) {
+            if (attendu[i] == '\n') {
+                positions.add(i);
+                positions.add(i + 1);
+                positions.add(Math.min(attendu.length - 1, i + 2));
+            }
+        }
+        Random random = new Random(83);
+        for (int i = 0; i < 200; i++) {
+            positions.add(random.nextInt(attendu.length));
+        }
+
+        Path file = dir.resolve("factures.csv");
+        for (int position : positions) {
+            Files.write(file, attendu);
+            truncate(file, position);
+            FacturationMensuelle.Resultat repris = facturation().generate(MOIS, file, true, SANS_SUIVI);
+            assertArrayEquals(attendu, Files.readAllBytes(file), "Reprise après troncature à " + position);
+            assertEquals(complet.totalCents(), repris.totalCents(), "Total après troncature à " + position);
+            assertEquals(complet.factures(), repris.factures() + repris.reprises(),
+                    "Factures après troncature à " + position);
+        }
+    }
+
+    @Test
+    void ignoreUnTotalIllisible() throws Exception {
+        Path reference = dir.resolve("reference.csv");
+        facturation().generate(MOIS, reference, true, SANS_SUIVI);
+        byte[] attendu = Files.readAllBytes(reference);
+
+        // Montant coupé puis ligne terminée : la facture doit être recalculée
+        String contenu = new String(attendu, StandardCharsets.UTF_8);
+        int total = contenu.indexOf(";Total;;;");
+        int finLigne = contenu.indexOf('\n', total);
+        Path file = dir.resolve("factures.csv");
+        Files.writeString(file, contenu.substring(0, finLigne - 1) + "x\n", StandardCharsets.UTF_8);
+
+        facturation().generate(MOIS, file, true, SANS_SUIVI);
+        assertArrayEquals(attendu, Files.readAllBytes(file));
+    }
+
+    private static FacturationMensuelle facturation() {
+        return new FacturationMensuelle(heures, contrats, avoirs, Simulation::childName, 4);
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
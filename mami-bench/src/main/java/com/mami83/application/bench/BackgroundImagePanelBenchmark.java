@@ -0,0 +1,87 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.bench;
+
+import com.mami83.application.composants.BackgroundImagePanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu du fond d'écran ({@link BackgroundImagePanel}) pour chaque style.
+ * <p>
+ * {@code paint} mesure l'affichage courant (fond redimensionné en cache),
+ * {@code paintUncached} le premier affichage après un redimensionnement.
+ *
+ * @author Association MAMI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class BackgroundImagePanelBenchmark {
+
+    @Param({"CENTERED", "SCALED", "TILED", "SCALED_KEEP_ASPECT_RATIO"})
+    public BackgroundImagePanel.Style style;
+
+    @Param({"1280x800"})
+    public String size;
+
+    private BackgroundImagePanel panel;
+    private Offscreen offscreen;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BufferedImage image;
+        try (InputStream is = BackgroundImagePanel.class.getResourceAsStream("/images/fond.png")) {
+            image = ImageIO.read(is);
+        }
+        Dimension dimension = Offscreen.parseSize(size);
+
+        panel = new BackgroundImagePanel(new BorderLayout());
+        panel.setBackgroundImage(image);
+        panel.setStyle(style);
+        panel.setSize(dimension);
+        offscreen = new Offscreen(dimension.width, dimension.height);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offscreen.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        panel.paint(offscreen.graphics());
+        return offscreen.image();
+    }
+
+    @Benchmark
+    public BufferedImage paintUncached() {
+        panel.invalidateCache();
+        panel.paint(offscreen.graphics());
+        return offscreen.image();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.bench;
+
+import com.mami83.application.composants.Icons;
+import com.mami83.application.composants.RasterizedIcon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu des icônes de navigation ({@link Icons}), pour chaque fabrique.
+ * <p>
+ * {@code paint} mesure l'affichage d'une icône déjà rastérisée,
+ * {@code createAndRasterize} la création et le premier dessin (cache vidé).
+ *
+ * @author Association MAMI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class IconsBenchmark {
+
+    @Param({"exit", "home", "child", "family", "employee", "admin", "globe", "key", "generic"})
+    public String icon;
+
+    @Param({"24", "48"})
+    public int size;
+
+    private static final Color COLOR = new Color(80, 80, 80);
+
+    private Icon instance;
+    private Offscreen offscreen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        instance = create();
+        offscreen = new Offscreen(size, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offscreen.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        instance.paintIcon(null, offscreen.graphics(), 0, 0);
+        return offscreen.image();
+    }
+
+    @Benchmark
+    public BufferedImage createAndRasterize() {
+        RasterizedIcon.clearCache();
+        create().paintIcon(null, offscreen.graphics(), 0, 0);
+        return offscreen.image();
+    }
+
+    private Icon create() {
+        return switch (icon) {
+            case "exit" -> Icons.exitIcon(size, COLOR);
+            case "home" -> Icons.homeIcon(size, COLOR);
+            case "child" -> Icons.childIcon(size, COLOR);
+            case "family" -> Icons.familyIcon(size, COLOR);
+            case "employee" -> Icons.employeeIcon(size, COLOR);
+            case "admin" -> Icons.adminIcon(size, COLOR);
+            case "globe" -> Icons.globeIcon(size, COLOR);
+            case "key" -> Icons.keyIcon(size, COLOR);
+            case "generic" -> Icons.genericIcon(size, COLOR);
+            default -> throw new IllegalArgumentException("Icône inconnue: " + icon);
+        };
+    }
+}
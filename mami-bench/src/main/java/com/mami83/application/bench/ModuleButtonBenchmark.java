@@ -0,0 +1,107 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.bench;
+
+import com.mami83.application.page.ihm.AccueilPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu d'une tuile de module de l'accueil (boutons créés par
+ * {@code AccueilPane.createModuleButton}), dans chaque état visuel.
+ * La tuile est prise dans un vrai {@link AccueilPane}.
+ *
+ * @author Association MAMI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class ModuleButtonBenchmark {
+
+    /** Tuile "Enfants" (première de la grille) */
+    private static final int TILE_INDEX = 0;
+
+    @Param({"normal", "rollover", "pressed", "disabled"})
+    public String state;
+
+    private JButton button;
+    private Offscreen offscreen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        button = findButton(new AccueilPane(), TILE_INDEX);
+        if (button == null) {
+            throw new IllegalStateException("Tuile de module introuvable");
+        }
+        button.setSize(button.getPreferredSize());
+
+        switch (state) {
+            case "rollover" -> button.getModel().setRollover(true);
+            case "pressed" -> {
+                button.getModel().setArmed(true);
+                button.getModel().setPressed(true);
+            }
+            case "disabled" -> button.setEnabled(false);
+            default -> {
+            }
+        }
+        offscreen = new Offscreen(button.getWidth(), button.getHeight());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offscreen.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        button.paint(offscreen.graphics());
+        return offscreen.image();
+    }
+
+    /**
+     * Retourne le n-ième bouton de l'arborescence (parcours en profondeur).
+     */
+    private static JButton findButton(Container container, int index) {
+        int[] remaining = {index};
+        return findButton(container, remaining);
+    }
+
+    private static JButton findButton(Container container, int[] remaining) {
+        for (Component child : container.getComponents()) {
+            if (child instanceof JButton button) {
+                if (remaining[0]-- == 0) {
+                    return button;
+                }
+            } else if (child instanceof Container c) {
+                JButton found = findButton(c, remaining);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.bench;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Image hors écran dans laquelle les benchmarks dessinent (aucun affichage requis).
+ * Le contexte graphique est réinitialisé (clip et transformation) à chaque appel.
+ *
+ * @author Association MAMI
+ */
+final class Offscreen {
+
+    private final BufferedImage image;
+    private final Graphics2D root;
+    private Graphics2D current;
+
+    Offscreen(int width, int height) {
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        root = image.createGraphics();
+    }
+
+    /**
+     * @return un contexte graphique neuf couvrant toute l'image
+     */
+    Graphics2D graphics() {
+        if (current != null) {
+            current.dispose();
+        }
+        current = (Graphics2D) root.create();
+        return current;
+    }
+
+    BufferedImage image() {
+        return image;
+    }
+
+    void dispose() {
+        if (current != null) {
+            current.dispose();
+        }
+        root.dispose();
+    }
+
+    /**
+     * Lit une taille au format "largeurxhauteur".
+     */
+    static Dimension parseSize(String size) {
+        String[] parts = size.split("x");
+        return new Dimension(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+}
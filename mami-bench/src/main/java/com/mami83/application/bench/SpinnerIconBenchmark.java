@@ -0,0 +1,63 @@
+/*
+ * Mami Application
+ * Copyright 2007-2025 Association MAMI
+ * Tous droits réservés
+ */
+package com.mami83.application.bench;
+
+import com.mami83.application.composants.SpinnerIcon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu d'une image du spinner de la barre de statut ({@link SpinnerIcon}).
+ * L'animation n'est pas démarrée : seul le dessin est mesuré.
+ *
+ * @author Association MAMI
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class SpinnerIconBenchmark {
+
+    @Param({"20", "32"})
+    public int size;
+
+    private SpinnerIcon spinner;
+    private Offscreen offscreen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        spinner = new SpinnerIcon(size, new Color(52, 152, 219));
+        offscreen = new Offscreen(size, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offscreen.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        spinner.paintIcon(null, offscreen.graphics(), 0, 0);
+        return offscreen.image();
+    }
+}